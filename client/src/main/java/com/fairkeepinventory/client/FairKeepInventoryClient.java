@@ -11,16 +11,28 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FairKeepInventoryClient implements ClientModInitializer {
 
     // Must match your Bukkit plugin channel
     public static final String CHANNEL_ID = "fairkeepinventory:ownership";
 
-    private static final Map<Integer, String[]> RESPONSE_CACHE = new ConcurrentHashMap<>();
-    private static int NEXT_REQUEST_ID = 0;
+    // HELLO advertises these; HELLO_ACK says what the server agreed to
+    public static final int PROTOCOL_VERSION = 3;
+    public static final int CAP_STRUCTURED = 1;
+    public static final int CAP_TIMER_COUNTDOWN = 2;
+
+    private static final AtomicInteger NEXT_REQUEST_ID = new AtomicInteger();
+
+    // Per connection, client thread only
+    private static boolean structured = false;
+    private static boolean countdown = false;
+    private static final Map<Integer, String> OWNER_NAMES = new HashMap<>();
 
     @Override
     public void onInitializeClient() {
@@ -31,7 +43,15 @@ public class FairKeepInventoryClient implements ClientModInitializer {
         TooltipHook.init();
 
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> sendHello());
-        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> RESPONSE_CACHE.clear());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            client.execute(() -> {
+                ResponseCache.clear();
+                SlotSummaries.clear();
+                structured = false;
+                countdown = false;
+                OWNER_NAMES.clear();
+            });
+        });
 
         ClientPlayNetworking.registerGlobalReceiver(FkiPayload.ID, (payload, context) -> {
             context.client().execute(() -> handleServerMessage(payload.data()));
@@ -45,6 +65,8 @@ public class FairKeepInventoryClient implements ClientModInitializer {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             DataOutputStream out = new DataOutputStream(baos);
             out.writeByte(0x01); // HELLO
+            VarInts.write(out, PROTOCOL_VERSION);
+            VarInts.write(out, CAP_STRUCTURED | CAP_TIMER_COUNTDOWN);
             out.flush();
 
             ClientPlayNetworking.send(new FkiPayload(baos.toByteArray()));
@@ -56,29 +78,127 @@ public class FairKeepInventoryClient implements ClientModInitializer {
     private static void handleServerMessage(byte[] data) {
         try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
             int type = in.readUnsignedByte();
-            if (type != 0x03) {
-                return; // only TOOLTIP_RESPONSE
+            switch (type) {
+                case 0x03 -> handleTooltipResponse(in);
+                case 0x04 -> handleSummary(in);
+                case 0x06 -> handleBatchResponse(in);
+                case 0x07 -> handleHelloAck(in);
+                default -> {
+                    // Unknown type; ignore
+                }
             }
+        } catch (IOException e) {
+            // ignore malformed packets
+        }
+    }
+
+    private static void handleTooltipResponse(DataInputStream in) throws IOException {
+        int requestId = in.readInt();
+        ResponseCache.answered(requestId, readLines(in));
+    }
+
+    private static void handleHelloAck(DataInputStream in) throws IOException {
+        int version = VarInts.read(in);
+        int capabilities = VarInts.read(in);
+        structured = version >= 2 && (capabilities & CAP_STRUCTURED) != 0;
+        countdown = structured && version >= 3 && (capabilities & CAP_TIMER_COUNTDOWN) != 0;
+        OWNER_NAMES.clear();
+    }
+
+    private static void handleSummary(DataInputStream in) throws IOException {
+        readContainer(in);
+    }
+
+    private static void handleBatchResponse(DataInputStream in) throws IOException {
+        in.readInt(); // requestId; only the latest batch matters
+        int containers = in.readUnsignedByte();
+        for (int i = 0; i < containers; i++) {
+            readContainer(in);
+        }
+    }
+
+    private static void readContainer(DataInputStream in) throws IOException {
+        if (structured) {
+            readStructuredContainer(in);
+            return;
+        }
 
-            int requestId = in.readInt();
-            int count = in.readUnsignedByte();
+        byte containerType = in.readByte();
+        boolean full = in.readBoolean();
+        int count = in.readUnsignedShort();
 
-            String[] lines = new String[count];
-            for (int i = 0; i < count; i++) {
-                lines[i] = in.readUTF();
+        Map<Integer, SlotTooltip> slots = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int slot = in.readInt();
+            slots.put(slot, SlotTooltip.of(readLines(in)));
+        }
+
+        SlotSummaries.apply(containerType, full, slots);
+    }
+
+    private static void readStructuredContainer(DataInputStream in) throws IOException {
+        byte containerType = in.readByte();
+        boolean full = in.readBoolean();
+
+        int owners = VarInts.read(in);
+        for (int i = 0; i < owners; i++) {
+            int ownerId = VarInts.read(in);
+            in.readLong(); // UUID, not needed for display
+            in.readLong();
+            OWNER_NAMES.put(ownerId, in.readUTF());
+        }
+
+        long receivedAtMs = System.currentTimeMillis();
+        int count = VarInts.read(in);
+        Map<Integer, SlotTooltip> slots = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int slot = VarInts.read(in);
+            int total = VarInts.read(in);
+            if (total == 0) {
+                slots.put(slot, SlotTooltip.EMPTY);
+                continue;
             }
 
-            RESPONSE_CACHE.put(requestId, lines);
-        } catch (IOException e) {
-            // ignore malformed packets
+            int ownedByViewer = VarInts.read(in);
+            int unowned = VarInts.read(in);
+            int timerSeconds = VarInts.read(in) - 1;
+            int rate = 0;
+            long sampledAtMs = receivedAtMs;
+            if (countdown && timerSeconds >= 0) {
+                rate = VarInts.read(in);
+                // The server's age of the sample; no clocks are compared
+                sampledAtMs -= VarInts.read(in);
+            }
+            int others = VarInts.read(in);
+            List<Map.Entry<String, Integer>> byOwner = new ArrayList<>(others);
+            for (int j = 0; j < others; j++) {
+                int ownerId = VarInts.read(in);
+                int amount = VarInts.read(in);
+                String name = OWNER_NAMES.getOrDefault(ownerId, "?");
+                byOwner.add(Map.entry(name, amount));
+            }
+
+            if (countdown && timerSeconds >= 0) {
+                String[] lines = SummaryLines.format(total, ownedByViewer, unowned, -1, byOwner);
+                slots.put(slot, SlotTooltip.counting(lines, timerSeconds, rate, sampledAtMs));
+            } else {
+                slots.put(slot, SlotTooltip.of(SummaryLines.format(total, ownedByViewer, unowned, timerSeconds, byOwner)));
+            }
         }
+
+        SlotSummaries.apply(containerType, full, slots);
     }
 
-    public static int nextRequestId() {
-        return NEXT_REQUEST_ID++;
+    private static String[] readLines(DataInputStream in) throws IOException {
+        int count = in.readUnsignedByte();
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = in.readUTF();
+        }
+        return lines;
     }
 
-    public static String[] getResponse(int requestId) {
-        return RESPONSE_CACHE.get(requestId);
+    public static int nextRequestId() {
+        return NEXT_REQUEST_ID.getAndIncrement();
     }
 }
@@ -0,0 +1,93 @@
+package com.fairkeepinventory.client;
+
+import net.minecraft.text.Text;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TOOLTIP_RESPONSE lines by the slot and item they were asked for, for
+ * servers that don't push summaries. Bounded, least recently used first out,
+ * and entries expire. Only touched on the client thread.
+ */
+final class ResponseCache {
+
+    /**
+     * A slot of a screen handler holding one particular item.
+     */
+    record Key(int syncId, byte containerType, int slot, int fingerprint) {
+    }
+
+    static final class Entry {
+        final long requestedAtMs;
+        // Null until the response arrives
+        List<Text> lines;
+
+        Entry(long requestedAtMs) {
+            this.requestedAtMs = requestedAtMs;
+        }
+    }
+
+    private static final int MAX_ENTRIES = 256;
+    // Requests the server never answered are forgotten after this many
+    private static final int MAX_PENDING = 64;
+    private static final long EXPIRY_MS = 60_000L;
+
+    private static final Map<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final Map<Integer, Key> PENDING = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Key> eldest) {
+            return size() > MAX_PENDING;
+        }
+    };
+
+    private ResponseCache() {
+    }
+
+    /**
+     * The entry for the key, or null if there is none or it expired.
+     */
+    static Entry get(Key key, long nowMs) {
+        Entry entry = ENTRIES.get(key);
+        if (entry != null && nowMs - entry.requestedAtMs >= EXPIRY_MS) {
+            ENTRIES.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Record a request just sent. Lines from an earlier entry stay visible
+     * until the response replaces them.
+     */
+    static void requested(int requestId, Key key, long nowMs) {
+        Entry previous = ENTRIES.get(key);
+        Entry entry = new Entry(nowMs);
+        if (previous != null) {
+            entry.lines = previous.lines;
+        }
+        ENTRIES.put(key, entry);
+        PENDING.put(requestId, key);
+    }
+
+    static void answered(int requestId, String[] lines) {
+        Key key = PENDING.remove(requestId);
+        if (key == null) return;
+
+        Entry entry = ENTRIES.get(key);
+        if (entry != null) {
+            entry.lines = SummaryLines.toText(lines);
+        }
+    }
+
+    static void clear() {
+        ENTRIES.clear();
+        PENDING.clear();
+    }
+}
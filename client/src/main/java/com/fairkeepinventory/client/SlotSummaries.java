@@ -0,0 +1,93 @@
+package com.fairkeepinventory.client;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tooltips the server pushed with SUMMARY messages, by container type and
+ * slot, built once on arrival. Only touched on the client thread.
+ *
+ * A container is covered once its first full SUMMARY arrived; from then on a
+ * slot with no entry has nothing to show, and TooltipHook stops polling.
+ */
+final class SlotSummaries {
+
+    private static final Map<Integer, SlotTooltip> PLAYER = new HashMap<>();
+    private static final Map<Integer, SlotTooltip> TOP = new HashMap<>();
+    private static boolean playerCovered = false;
+    // Screen handler the top summaries belong to, or -1
+    private static int topSyncId = -1;
+
+    private SlotSummaries() {
+    }
+
+    static void apply(byte containerType, boolean full, Map<Integer, SlotTooltip> slots) {
+        Map<Integer, SlotTooltip> target;
+        if (containerType == 0) {
+            target = PLAYER;
+            if (full) {
+                PLAYER.clear();
+                playerCovered = true;
+            } else if (!playerCovered) {
+                return;
+            }
+        } else {
+            target = TOP;
+            int syncId = currentSyncId();
+            if (full) {
+                TOP.clear();
+                topSyncId = syncId;
+            } else if (topSyncId < 0 || topSyncId != syncId) {
+                // Delta for a window we have no full summary of
+                return;
+            }
+        }
+
+        for (Map.Entry<Integer, SlotTooltip> e : slots.entrySet()) {
+            if (e.getValue().isEmpty()) {
+                target.remove(e.getKey());
+            } else {
+                target.put(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    /**
+     * Lines for the slot, an empty list if the container is covered and the
+     * slot has nothing, or null if the container is not covered.
+     */
+    static List<Text> get(byte containerType, int slot, long nowMs) {
+        if (containerType == 0) {
+            return playerCovered ? PLAYER.getOrDefault(slot, SlotTooltip.EMPTY).lines(nowMs) : null;
+        }
+        if (topSyncId < 0 || topSyncId != currentSyncId()) {
+            return null;
+        }
+        return TOP.getOrDefault(slot, SlotTooltip.EMPTY).lines(nowMs);
+    }
+
+    /**
+     * Whether both the player inventory and this screen handler's container
+     * have had a full summary.
+     */
+    static boolean covers(int syncId) {
+        return playerCovered && (syncId == 0 || topSyncId == syncId);
+    }
+
+    static void clear() {
+        PLAYER.clear();
+        TOP.clear();
+        playerCovered = false;
+        topSyncId = -1;
+    }
+
+    private static int currentSyncId() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player == null) return -1;
+        return client.player.currentScreenHandler.syncId;
+    }
+}
@@ -0,0 +1,66 @@
+package com.fairkeepinventory.client;
+
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The pushed tooltip lines of one slot. A timer the server said is running
+ * is counted down locally; its line is rebuilt only when the shown second
+ * changes. Only touched on the client thread.
+ */
+final class SlotTooltip {
+
+    static final SlotTooltip EMPTY = new SlotTooltip(List.of(), -1, 0, 0L);
+
+    private final List<Text> fixed;
+    // Remaining seconds at anchorMs, or -1 without a counted-down timer
+    private final int timerSeconds;
+    // Timer seconds per second
+    private final int rate;
+    private final long anchorMs;
+
+    private int shownSeconds = -1;
+    private List<Text> shown;
+
+    private SlotTooltip(List<Text> fixed, int timerSeconds, int rate, long anchorMs) {
+        this.fixed = fixed;
+        this.timerSeconds = timerSeconds;
+        this.rate = rate;
+        this.anchorMs = anchorMs;
+    }
+
+    static SlotTooltip of(String[] lines) {
+        return lines.length == 0 ? EMPTY : new SlotTooltip(SummaryLines.toText(lines), -1, 0, 0L);
+    }
+
+    /**
+     * Lines followed by a timer line counting down from {@code timerSeconds},
+     * which was current at {@code anchorMs}.
+     */
+    static SlotTooltip counting(String[] lines, int timerSeconds, int rate, long anchorMs) {
+        return new SlotTooltip(SummaryLines.toText(lines), timerSeconds, rate, anchorMs);
+    }
+
+    boolean isEmpty() {
+        return fixed.isEmpty();
+    }
+
+    List<Text> lines(long nowMs) {
+        if (timerSeconds < 0) {
+            return fixed;
+        }
+
+        long elapsedSeconds = Math.max(0L, nowMs - anchorMs) / 1000L;
+        int remaining = (int) Math.max(0L, timerSeconds - elapsedSeconds * rate);
+        if (shown == null || remaining != shownSeconds) {
+            List<Text> lines = new ArrayList<>(fixed.size() + 1);
+            lines.addAll(fixed);
+            lines.add(Text.literal(SummaryLines.timerLine(remaining)));
+            shown = List.copyOf(lines);
+            shownSeconds = remaining;
+        }
+        return shown;
+    }
+}
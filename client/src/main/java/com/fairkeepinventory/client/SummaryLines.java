@@ -0,0 +1,69 @@
+package com.fairkeepinventory.client;
+
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats structured summaries into the same lines older servers send, and
+ * lines into tooltip Text.
+ */
+final class SummaryLines {
+
+    private SummaryLines() {
+    }
+
+    /**
+     * @param timerSeconds smallest remaining seconds of the viewer's timers, or -1
+     * @param others       owner name -> amount, in the server's order
+     */
+    static String[] format(
+            int total,
+            int ownedByViewer,
+            int unowned,
+            int timerSeconds,
+            List<Map.Entry<String, Integer>> others
+    ) {
+        List<String> lines = new ArrayList<>();
+        if (total <= 0) {
+            return new String[0];
+        }
+
+        lines.add("§8FairKeepInventory:");
+
+        if (ownedByViewer > 0) {
+            lines.add("§aOwned by you: §f" + ownedByViewer + " / " + total);
+        }
+        if (unowned > 0) {
+            lines.add("§7Unowned: §f" + unowned + " / " + total);
+        }
+        for (Map.Entry<String, Integer> e : others) {
+            lines.add("§cOwned by " + e.getKey() + ": §f" + e.getValue());
+        }
+
+        if (timerSeconds >= 0) {
+            lines.add(timerLine(timerSeconds));
+        }
+
+        return lines.toArray(new String[0]);
+    }
+
+    static String timerLine(int timerSeconds) {
+        return "§bTimer: §f" + timerSeconds + "s until fully owned";
+    }
+
+    /**
+     * Tooltip lines, skipping blanks. Built once per response, not per frame.
+     */
+    static List<Text> toText(String[] lines) {
+        List<Text> texts = new ArrayList<>(lines.length);
+        for (String s : lines) {
+            if (s != null && !s.isEmpty()) {
+                texts.add(Text.literal(s));
+            }
+        }
+        return List.copyOf(texts);
+    }
+}
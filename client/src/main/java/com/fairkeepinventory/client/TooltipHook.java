@@ -1,7 +1,9 @@
 package com.fairkeepinventory.client;
 
+import com.fairkeepinventory.client.mixin.HandledScreenAccessor;
 import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
 import net.minecraft.item.ItemStack;
@@ -11,21 +13,33 @@ import net.minecraft.text.Text;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 public final class TooltipHook {
 
-    private static int lastRequestId = -1;
-    private static int lastSlotIndex = -1;
-    private static byte lastContainerType = -1;
+    private static final Text LOADING = Text.literal("§8[FKI] Loading ownership...");
 
-    // New: track when we last asked the server for this slot
-    private static long lastRequestTimeMs = 0L;
+    // How often a hovered slot is asked for again
     private static final long REFRESH_INTERVAL_MS = 1000L; // 1 second
 
+    // Screen handler the last BATCH_REQUEST was sent for
+    private static int lastBatchSyncId = -1;
+
     private TooltipHook() {
     }
 
     static void init() {
+        // One round trip for every slot on screen, instead of one per hovered slot
+        ScreenEvents.AFTER_INIT.register((client, screen, scaledWidth, scaledHeight) -> {
+            if (!(screen instanceof HandledScreen<?> handled)) return;
+            int syncId = handled.getScreenHandler().syncId;
+            if (syncId == lastBatchSyncId) return; // re-init on resize
+            lastBatchSyncId = syncId;
+            ScreenEvents.remove(screen).register(removed -> lastBatchSyncId = -1);
+            if (SlotSummaries.covers(syncId)) return;
+            sendBatchRequest(FairKeepInventoryClient.nextRequestId());
+        });
+
         // Signature: (stack, context, type, lines)
         ItemTooltipCallback.EVENT.register((stack, context, type, lines) -> {
             MinecraftClient client = MinecraftClient.getInstance();
@@ -33,59 +47,72 @@ public final class TooltipHook {
             if (!(client.currentScreen instanceof HandledScreen<?> screen)) return;
             if (!ClientPlayNetworking.canSend(FkiPayload.ID)) return;
 
-            // Find the slot whose stack instance is the one we're rendering a tooltip for
-            Slot targetSlot = null;
-            for (Slot slot : screen.getScreenHandler().slots) {
-                if (!slot.hasStack()) continue;
-                if (slot.getStack() == stack) {
-                    targetSlot = slot;
-                    break;
-                }
-            }
-            if (targetSlot == null) return;
+            // Only the hovered slot's own tooltip; not e.g. the cursor stack's
+            Slot targetSlot = ((HandledScreenAccessor) screen).fairkeepinventory$getFocusedSlot();
+            if (targetSlot == null || targetSlot.getStack() != stack) return;
 
             byte containerType = isPlayerInventorySlot(targetSlot) ? (byte) 0 : (byte) 1;
             int slotIndex = targetSlot.getIndex();
 
-            boolean sameSlot = (slotIndex == lastSlotIndex) && (containerType == lastContainerType);
+            // Pushed by the server once this container is subscribed; no request needed
             long now = System.currentTimeMillis();
+            List<Text> pushed = SlotSummaries.get(containerType, slotIndex, now);
+            if (pushed != null) {
+                lines.addAll(pushed);
+                return;
+            }
+
+            ResponseCache.Key key = new ResponseCache.Key(
+                    screen.getScreenHandler().syncId, containerType, slotIndex, fingerprint(stack));
 
-            // If this is a different slot, or we never requested before, start a fresh request id
-            if (!sameSlot || lastRequestId < 0) {
-                lastRequestId = FairKeepInventoryClient.nextRequestId();
-                lastSlotIndex = slotIndex;
-                lastContainerType = containerType;
-                lastRequestTimeMs = now;
-                sendTooltipRequest(lastRequestId, containerType, slotIndex);
-            } else if (now - lastRequestTimeMs >= REFRESH_INTERVAL_MS) {
-                // Same slot, but it's time to refresh from the server
-                lastRequestTimeMs = now;
-                // Re-use the same requestId so the cache entry gets updated in place
-                sendTooltipRequest(lastRequestId, containerType, slotIndex);
+            ResponseCache.Entry entry = ResponseCache.get(key, now);
+            if (entry == null || now - entry.requestedAtMs >= REFRESH_INTERVAL_MS) {
+                int requestId = FairKeepInventoryClient.nextRequestId();
+                ResponseCache.requested(requestId, key, now);
+                sendTooltipRequest(requestId, containerType, slotIndex);
             }
 
-            // Always show the latest data we have for this request id
-            String[] extra = (lastRequestId >= 0)
-                    ? FairKeepInventoryClient.getResponse(lastRequestId)
-                    : null;
+            // Show the latest data we have for this slot and item
+            List<Text> extra = entry != null ? entry.lines : null;
 
             if (extra == null) {
-                // No data yet for this request id
-                lines.add(Text.literal("§8[FKI] Loading ownership..."));
+                // No response yet for this slot
+                lines.add(LOADING);
             } else {
-                for (String s : extra) {
-                    if (s != null && !s.isEmpty()) {
-                        lines.add(Text.literal(s));
-                    }
-                }
+                lines.addAll(extra);
             }
         });
     }
 
+    /**
+     * Tells apart items that may differ in ownership; not the stack instance,
+     * which the client replaces on every slot update.
+     */
+    private static int fingerprint(ItemStack stack) {
+        return 31 * ItemStack.hashCode(stack) + stack.getCount();
+    }
+
     private static boolean isPlayerInventorySlot(Slot slot) {
         return slot.inventory instanceof net.minecraft.entity.player.PlayerInventory;
     }
 
+    private static void sendBatchRequest(int requestId) {
+        if (!ClientPlayNetworking.canSend(FkiPayload.ID)) return;
+
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+
+            out.writeByte(0x05);       // BATCH_REQUEST
+            out.writeInt(requestId);
+            out.flush();
+
+            ClientPlayNetworking.send(new FkiPayload(baos.toByteArray()));
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
     private static void sendTooltipRequest(int requestId, byte containerType, int slotIndex) {
         if (!ClientPlayNetworking.canSend(FkiPayload.ID)) return;
 
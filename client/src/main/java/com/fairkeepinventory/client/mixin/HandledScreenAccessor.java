@@ -0,0 +1,17 @@
+package com.fairkeepinventory.client.mixin;
+
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.screen.slot.Slot;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(HandledScreen.class)
+public interface HandledScreenAccessor {
+	/**
+	 * The slot under the mouse, or null.
+	 */
+	@Accessor("focusedSlot")
+	@Nullable
+	Slot fairkeepinventory$getFocusedSlot();
+}
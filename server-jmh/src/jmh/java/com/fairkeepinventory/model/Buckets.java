@@ -0,0 +1,48 @@
+package com.fairkeepinventory.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic ownership statuses shaped like a live server's: mostly owned or
+ * counting down for a handful of players, a few unowned and a few being
+ * claimed from someone else.
+ */
+public final class Buckets {
+    // Far beyond any benchmark run, so ticking never finishes a timer
+    public static final int LONG_TIMER_SECONDS = 1_000_000_000;
+
+    private Buckets() {
+    }
+
+    public static List<UUID> players(int count, Random random) {
+        List<UUID> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return players;
+    }
+
+    /**
+     * {@code count} distinct statuses. With {@code longTimers}, timers are
+     * too long to finish while a benchmark ticks them.
+     */
+    public static List<OwnershipStatus> statuses(int count, List<UUID> players, Random random, boolean longTimers) {
+        List<OwnershipStatus> statuses = new ArrayList<>(count);
+        statuses.add(OwnershipStatus.empty());
+        for (int i = 1; i < count; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            int seconds = longTimers
+                    ? LONG_TIMER_SECONDS - i
+                    : 1 + random.nextInt(OwnershipStatus.TIMER_INIT_SECONDS);
+            switch (i % 4) {
+                case 0 -> statuses.add(OwnershipStatus.owned(new UUID(i, i)));
+                case 1, 2 -> statuses.add(OwnershipStatus.timered(player, seconds));
+                default -> statuses.add(OwnershipStatus.claimingOwned(new UUID(i, i), player, seconds));
+            }
+        }
+        return statuses;
+    }
+}
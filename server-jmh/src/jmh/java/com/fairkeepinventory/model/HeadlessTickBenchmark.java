@@ -0,0 +1,88 @@
+package com.fairkeepinventory.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fairkeepinventory.platform.InMemoryPlatform;
+import com.fairkeepinventory.util.StableOrderingMap;
+
+/**
+ * The whole of OwnershipTable.tickInventory on an in-memory platform: the
+ * tick itself, then publishing a fresh snapshot of every ticked inventory
+ * and notifying a snapshot listener, as the plugin's own ones would be.
+ *
+ * Each simulated player's inventory is an entity inventory, since player
+ * inventory ids load InventoryType, which needs a server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HeadlessTickBenchmark {
+    @Param({"100", "1000", "5000"})
+    int players;
+
+    @Param({"27"})
+    int keysPerInventory;
+
+    @Param({"3"})
+    int bucketsPerKey;
+
+    private final InMemoryPlatform platform = new InMemoryPlatform();
+    private OwnershipTable table;
+    private long published;
+
+    @Setup
+    public void setup() {
+        table = new OwnershipTable(platform);
+        table.addSnapshotListener((inventoryId, snapshot) -> published += snapshot.getVersion());
+
+        Random random = new Random(42);
+        List<UUID> playerIds = Buckets.players(players, random);
+        for (UUID playerId : playerIds) {
+            platform.join(playerId);
+            fill(table.recordsOf(InventoryId.deserialize("ENTITY|" + playerId)), playerIds, random);
+        }
+        platform.runPending();
+    }
+
+    /**
+     * ItemStacks can't be created without a server, and nothing on this path
+     * looks inside the keys, so the records are keyed by Integer under the hood.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void fill(
+            Map<?, StableOrderingMap<OwnershipStatus, Integer>> records,
+            List<UUID> playerIds,
+            Random random
+    ) {
+        Map byKey = records;
+        for (int key = 0; key < keysPerInventory; key++) {
+            StableOrderingMap<OwnershipStatus, Integer> bucket =
+                    new StableOrderingMap<>(OwnershipStatus.sharedTakeOrder(), OwnershipStatus::equals);
+            for (OwnershipStatus status : Buckets.statuses(bucketsPerKey, playerIds, random, true)) {
+                bucket.put(status, 1 + random.nextInt(64));
+            }
+            byKey.put(key, bucket);
+        }
+    }
+
+    @Benchmark
+    public long tickAndPublish() {
+        platform.advance(1, TimeUnit.SECONDS);
+        table.tickInventory(1, inventoryId -> true, (inventoryId, status) -> status);
+        platform.runPending();
+        return published;
+    }
+}
@@ -0,0 +1,97 @@
+package com.fairkeepinventory.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fairkeepinventory.util.StableOrderingMap;
+
+/**
+ * Per-status work: drop ordering, timer ticks and the string form used by
+ * persistence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OwnershipStatusBenchmark {
+    @Param({"4", "16", "64"})
+    int buckets;
+
+    private List<OwnershipStatus> statuses;
+    private List<String> serialized;
+    private StableOrderingMap<OwnershipStatus, Integer> bucket;
+    private String serializedBucket;
+    private UUID player;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<UUID> players = Buckets.players(8, random);
+        player = players.get(0);
+        statuses = Buckets.statuses(buckets, players, random, false);
+
+        serialized = new ArrayList<>(statuses.size());
+        bucket = new StableOrderingMap<>(OwnershipStatus.sharedTakeOrder(), OwnershipStatus::equals);
+        for (OwnershipStatus status : statuses) {
+            serialized.add(status.serialize());
+            bucket.put(status, 1 + random.nextInt(64));
+        }
+        serializedBucket = bucket.serialize(OwnershipStatus::serialize, String::valueOf);
+    }
+
+    @Benchmark
+    public List<OwnershipStatus> playerDropOrderSort() {
+        List<OwnershipStatus> sorted = new ArrayList<>(statuses);
+        sorted.sort(OwnershipStatus.playerDropOrder(player));
+        return sorted;
+    }
+
+    @Benchmark
+    public Comparator<OwnershipStatus> playerDropOrderCreate() {
+        return OwnershipStatus.playerDropOrder(player);
+    }
+
+    @Benchmark
+    public void tickTimer(Blackhole bh) {
+        for (OwnershipStatus status : statuses) {
+            bh.consume(status.tickTimer(1));
+        }
+    }
+
+    @Benchmark
+    public void serialize(Blackhole bh) {
+        for (OwnershipStatus status : statuses) {
+            bh.consume(status.serialize());
+        }
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole bh) {
+        for (String data : serialized) {
+            bh.consume(OwnershipStatus.deserialize(data));
+        }
+    }
+
+    @Benchmark
+    public String serializeBucket() {
+        return bucket.serialize(OwnershipStatus::serialize, String::valueOf);
+    }
+
+    @Benchmark
+    public StableOrderingMap<OwnershipStatus, Integer> deserializeBucket() {
+        return StableOrderingMap.deserialize(serializedBucket, OwnershipStatus::deserialize, Integer::valueOf);
+    }
+}
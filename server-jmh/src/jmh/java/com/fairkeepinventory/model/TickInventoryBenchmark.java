@@ -0,0 +1,87 @@
+package com.fairkeepinventory.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fairkeepinventory.util.StableOrderingMap;
+
+/**
+ * One timer tick over a synthetic table: what OwnershipTable.tickInventory
+ * does for each inventory it ticks, minus queueing the snapshot publish,
+ * which needs a running server.
+ *
+ * Timers are long enough never to finish during a run, so every invocation
+ * ticks the same number of distinct statuses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickInventoryBenchmark {
+    // Players online, each with a main inventory and an ender chest
+    @Param({"10", "100", "1000"})
+    int players;
+
+    // Distinct item keys per inventory; a full player inventory holds up to 41
+    @Param({"27"})
+    int keysPerInventory;
+
+    @Param({"3"})
+    int bucketsPerKey;
+
+    // Only handed to the pre-tick transform, which ignores it; player ids
+    // would load InventoryType, which needs a server
+    private final InventoryId inventoryId = InventoryId.deserialize("VIRTUAL");
+    private final List<Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>>> tables = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<UUID> playerIds = Buckets.players(players, random);
+        for (int i = 0; i < players; i++) {
+            // Main inventory and ender chest
+            tables.add(syntheticTable(playerIds, random));
+            tables.add(syntheticTable(playerIds, random));
+        }
+    }
+
+    /**
+     * ItemStacks can't be created without a server, and tickRecords never
+     * looks at the keys, so the table is keyed by Integer under the hood.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syntheticTable(List<UUID> playerIds, Random random) {
+        Map<Integer, StableOrderingMap<OwnershipStatus, Integer>> byKey = new HashMap<>();
+        for (int key = 0; key < keysPerInventory; key++) {
+            StableOrderingMap<OwnershipStatus, Integer> records =
+                    new StableOrderingMap<>(OwnershipStatus.sharedTakeOrder(), OwnershipStatus::equals);
+            for (OwnershipStatus status : Buckets.statuses(bucketsPerKey, playerIds, random, true)) {
+                records.put(status, 1 + random.nextInt(64));
+            }
+            byKey.put(key, records);
+        }
+        return (Map) byKey;
+    }
+
+    @Benchmark
+    public int tickAll() {
+        for (Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> table : tables) {
+            OwnershipTable.tickRecords(inventoryId, table, 1, (invId, status) -> status);
+        }
+        return tables.size();
+    }
+}
@@ -0,0 +1,89 @@
+package com.fairkeepinventory.util;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fairkeepinventory.model.Buckets;
+import com.fairkeepinventory.model.OwnershipStatus;
+
+/**
+ * One item's ownership bucket: the map every transfer, drop and tick goes
+ * through. Buckets on a live server hold from one to a few dozen statuses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StableOrderingMapBenchmark {
+    @Param({"1", "4", "16", "64"})
+    int buckets;
+
+    private List<OwnershipStatus> statuses;
+    private StableOrderingMap<OwnershipStatus, Integer> filled;
+    private OwnershipStatus present;
+    private OwnershipStatus absent;
+    private UUID player;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<UUID> players = Buckets.players(8, random);
+        player = players.get(0);
+        statuses = Buckets.statuses(buckets + 1, players, random, false);
+        absent = statuses.remove(statuses.size() - 1);
+        present = statuses.get(statuses.size() / 2);
+
+        filled = newMap();
+        for (OwnershipStatus status : statuses) {
+            filled.put(status, 1);
+        }
+    }
+
+    private StableOrderingMap<OwnershipStatus, Integer> newMap() {
+        return new StableOrderingMap<>(OwnershipStatus.sharedTakeOrder(), OwnershipStatus::equals);
+    }
+
+    @Benchmark
+    public StableOrderingMap<OwnershipStatus, Integer> putAll() {
+        StableOrderingMap<OwnershipStatus, Integer> map = newMap();
+        for (OwnershipStatus status : statuses) {
+            map.put(status, 1);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public StableOrderingMap<OwnershipStatus, Integer> mergeAll() {
+        StableOrderingMap<OwnershipStatus, Integer> map = newMap();
+        for (OwnershipStatus status : statuses) {
+            map.merge(status, 1, Integer::sum);
+            map.merge(status, 1, Integer::sum);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        bh.consume(filled.get(present));
+        bh.consume(filled.get(absent));
+    }
+
+    @Benchmark
+    public StableOrderingMap<OwnershipStatus, Integer> setOrderComparator() {
+        // Alternate so every call actually re-sorts
+        filled.setOrderComparator(OwnershipStatus.playerDropOrder(player));
+        filled.setOrderComparator(OwnershipStatus.sharedTakeOrder());
+        return filled;
+    }
+}
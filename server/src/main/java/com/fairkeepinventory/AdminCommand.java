@@ -0,0 +1,155 @@
+package com.fairkeepinventory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.inventory.ItemStack;
+
+import com.fairkeepinventory.model.InventoryId;
+import com.fairkeepinventory.model.OwnershipSnapshot;
+import com.fairkeepinventory.model.OwnershipStatus;
+import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.Blocking;
+import com.fairkeepinventory.util.Metrics;
+import com.fairkeepinventory.util.OwnerNames;
+import com.fairkeepinventory.util.Scheduling;
+import com.fairkeepinventory.workload.WorkloadReplayer;
+
+/**
+ * /fki admin subcommands. Anything not handled here falls through to the
+ * usage text in plugin.yml.
+ */
+public class AdminCommand implements CommandExecutor {
+    private static final DateTimeFormatter EXPORT_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    protected OwnershipTable table = OwnershipTable.getInstance();
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("export")) {
+            export(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+            sender.sendMessage("FairKeepInventory stats:");
+            for (String line : Metrics.summary()) {
+                sender.sendMessage(line);
+            }
+            return true;
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("replay")) {
+            replay(sender, args[1]);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Write every inventory's ownership to a TSV file under exports/. Reads
+     * the published snapshots and does all file and name lookups on Blocking.
+     * Offline players' ender chests are settled first, so their timers aren't
+     * as of whenever the player left.
+     */
+    private void export(CommandSender sender) {
+        final Path file = FairKeepInventoryPlugin.getInstance().getDataFolder().toPath()
+            .resolve("exports")
+            .resolve("ownership-" + LocalDateTime.now().format(EXPORT_FILE_TIME) + ".tsv");
+
+        sender.sendMessage("Exporting ownership to " + file.getFileName() + "...");
+        Scheduling.runGlobal(() -> {
+            table.settleOfflineEnderChests();
+            Blocking.supply(() -> writeExport(file))
+                .whenComplete((rows, error) -> {
+                    String message = error == null
+                        ? "Exported " + rows + " ownership rows to " + file
+                        : "Ownership export failed: " + error.getMessage();
+                    reply(sender, message);
+                });
+        });
+    }
+
+    private int writeExport(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        int rows = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("inventory\titem\towner\ttimer_player\ttimer_seconds\tamount");
+            out.newLine();
+
+            for (Map.Entry<InventoryId, OwnershipSnapshot> inventory : table.getSnapshots().entrySet()) {
+                String inventoryId = inventory.getKey().serialize();
+
+                for (Map.Entry<ItemStack, List<Map.Entry<OwnershipStatus, Integer>>> item
+                        : inventory.getValue().getBuckets().entrySet()) {
+                    String itemType = item.getKey().getType().getKey().toString();
+
+                    for (Map.Entry<OwnershipStatus, Integer> bucket : item.getValue()) {
+                        OwnershipStatus status = bucket.getKey();
+                        String owner = status.getOwnerUuid().map(OwnerNames::resolve).orElse("");
+                        String timerPlayer = status.getTimer()
+                            .map(timer -> OwnerNames.resolve(timer.getPlayerId()))
+                            .orElse("");
+                        String timerSeconds = status.getTimer()
+                            .map(timer -> Integer.toString(timer.getRemainingSeconds()))
+                            .orElse("");
+
+                        out.write(String.join("\t",
+                            inventoryId, itemType, owner, timerPlayer, timerSeconds,
+                            Integer.toString(bucket.getValue())
+                        ));
+                        out.newLine();
+                        rows++;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Replay a file from recordings/ against a detached table and report how
+     * it went. Runs on its own platform thread so its allocation can be
+     * measured; the live table is not touched.
+     */
+    private void replay(CommandSender sender, String name) {
+        final Path directory = FairKeepInventoryPlugin.getInstance().getDataFolder().toPath().resolve("recordings").normalize();
+        final Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            sender.sendMessage("No recording named " + name + " in " + directory);
+            return;
+        }
+
+        sender.sendMessage("Replaying " + file.getFileName() + "...");
+        Thread replayThread = new Thread(() -> {
+            String message;
+            try {
+                message = "Replayed " + file.getFileName() + ": " + WorkloadReplayer.replay(file).describe();
+            } catch (IOException | RuntimeException e) {
+                message = "Replay of " + file.getFileName() + " failed: " + e.getMessage();
+            }
+            reply(sender, message);
+        }, "FairKeepInventory replay");
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    private static void reply(CommandSender sender, String message) {
+        if (sender instanceof Entity entity) {
+            Scheduling.runForEntity(entity, () -> sender.sendMessage(message));
+        } else {
+            Scheduling.runGlobal(() -> sender.sendMessage(message));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
@@ -26,7 +27,7 @@ import com.fairkeepinventory.model.OwnershipTable;
 
 public class EnderChestClose implements Listener {
     protected OwnershipTable table = OwnershipTable.getInstance();
-    protected Map<Location, Map<UUID, Instant>> playerFirstOpenTime = new HashMap<>();
+    protected Map<Location, Map<UUID, Instant>> playerFirstOpenTime = new ConcurrentHashMap<>();
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClose(InventoryCloseEvent event) {
@@ -38,7 +39,7 @@ public class EnderChestClose implements Listener {
                     Instant.now())
                 .minusSeconds(600)
                 .isPositive()) {
-                table.tickInventory(600, inv -> inv.equals(InventoryId.from(inventory)), (inventoryId, status) -> status);
+                table.tickInventory(InventoryId.from(inventory), 600, (inventoryId, status) -> status);
             }
         }
     }
@@ -50,7 +51,7 @@ public class EnderChestClose implements Listener {
             Location location = inventory.getLocation();
             if (location != null) {
                 playerFirstOpenTime
-                    .computeIfAbsent(location, k -> new HashMap<>())
+                    .computeIfAbsent(location, k -> new ConcurrentHashMap<>())
                     .putIfAbsent(event.getPlayer().getUniqueId(), Instant.now());
             }
         }
@@ -0,0 +1,258 @@
+package com.fairkeepinventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Location;
+import org.bukkit.block.Container;
+import org.bukkit.entity.Item;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.entity.ItemSpawnEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import com.fairkeepinventory.model.ChunkKey;
+import com.fairkeepinventory.model.InventoryId;
+import com.fairkeepinventory.model.ItemKeys;
+import com.fairkeepinventory.model.OwnershipStatus;
+import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.Scheduling;
+import com.fairkeepinventory.util.StableOrderingMap;
+
+/**
+ * Ownership accounting for hoppers, droppers and hopper minecarts.
+ *
+ * Moves are not applied one event at a time: they are coalesced per
+ * (source, destination, item) edge and applied once at the start of the next
+ * tick, in the order the edges first appeared, so a hopper chain costs one
+ * bucket split per edge per tick however many items went through it.
+ *
+ * Batches are kept per source chunk and flushed on the region owning that
+ * chunk, so on Folia each region only ever touches its own batches.
+ *
+ * Items dispensed into the world carry what they took out of the container,
+ * the way a player's dropped items do: the item entity that spawns right
+ * after the dispense is remembered with its edge and gets its share of the
+ * ownership when the edge is applied.
+ */
+public class HopperItemTransfer implements Listener {
+    private static final class Edge {
+        final InventoryId source;
+        // null when the items left the container into the world
+        final InventoryId destination;
+        final ItemStack key;
+
+        Edge(InventoryId source, InventoryId destination, ItemStack key) {
+            this.source = source;
+            this.destination = destination;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Edge)) return false;
+            Edge other = (Edge) o;
+            return source.equals(other.source)
+                && Objects.equals(destination, other.destination)
+                && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, destination, key);
+        }
+    }
+
+    // The item entity a dispense edge spawned, and how many items it held then
+    private record DispensedItem(Item entity, int amount) {
+    }
+
+    // A dispense whose item entity hasn't spawned yet; see onItemSpawn
+    private record Dispense(ChunkKey chunk, Edge edge, Location from) {
+    }
+
+    // How far from the dispenser's centre its item entity spawns, squared
+    private static final double DISPENSE_REACH_SQUARED = 1.5 * 1.5;
+
+    protected OwnershipTable table = OwnershipTable.getInstance();
+
+    // A batch is created and flushed by the region owning its chunk only
+    private final Map<ChunkKey, Map<Edge, Integer>> pendingMoves = new ConcurrentHashMap<>();
+    // Same ownership as pendingMoves: spawned item entities by dispense edge
+    private final Map<ChunkKey, Map<Edge, List<DispensedItem>>> pendingDispensed = new ConcurrentHashMap<>();
+    // The dispense handled last on this thread, until the next item spawn
+    private final ThreadLocal<Dispense> lastDispense = new ThreadLocal<>();
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        ItemStack item = event.getItem();
+        if (item == null || item.isEmpty()) {
+            return;
+        }
+        enqueue(
+            event.getSource(),
+            new Edge(InventoryId.from(event.getSource()), InventoryId.from(event.getDestination()), ItemKeys.of(item)),
+            item.getAmount()
+        );
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockDispense(BlockDispenseEvent event) {
+        // Items dispensed into another container fire InventoryMoveItemEvent
+        // instead; this one only sees items leaving into the world.
+        if (!(event.getBlock().getState(false) instanceof Container container)) {
+            return;
+        }
+        ItemStack item = event.getItem();
+        if (item == null || item.isEmpty()) {
+            return;
+        }
+        Inventory source = container.getInventory();
+        Edge edge = new Edge(InventoryId.from(source), null, ItemKeys.of(item));
+        ChunkKey chunk = enqueue(source, edge, item.getAmount());
+        if (chunk != null) {
+            // Its item entity, if it drops one, spawns on this thread before anything else does
+            lastDispense.set(new Dispense(chunk, edge, event.getBlock().getLocation().add(0.5, 0.5, 0.5)));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemSpawn(ItemSpawnEvent event) {
+        Dispense dispense = lastDispense.get();
+        if (dispense == null) {
+            return;
+        }
+        lastDispense.remove();
+
+        Item itemEntity = event.getEntity();
+        Location location = itemEntity.getLocation();
+        if (location.getWorld() != dispense.from().getWorld()
+                || location.distanceSquared(dispense.from()) > DISPENSE_REACH_SQUARED
+                || !ItemKeys.matches(itemEntity.getItemStack(), dispense.edge().key)) {
+            // Something else; the dispense shot a projectile or placed a block instead
+            return;
+        }
+
+        Map<Edge, List<DispensedItem>> spawned = pendingDispensed.get(dispense.chunk());
+        if (spawned == null) {
+            spawned = new HashMap<>();
+            pendingDispensed.put(dispense.chunk(), spawned);
+        }
+        spawned
+            .computeIfAbsent(dispense.edge(), k -> new ArrayList<>())
+            .add(new DispensedItem(itemEntity, itemEntity.getItemStack().getAmount()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryPickupItem(InventoryPickupItemEvent event) {
+        final Inventory inventory = event.getInventory();
+        final Item itemEntity = event.getItem();
+        final UUID itemEntityUuid = itemEntity.getUniqueId();
+        final ItemStack key = ItemKeys.of(itemEntity.getItemStack());
+        final int amountBefore = itemEntity.getItemStack().getAmount();
+
+        // The hopper may only have room for part of the stack; see what's left next tick
+        Scheduling.runAt(
+            itemEntity.getLocation(),
+            () -> {
+                int amountAfter = itemEntity.isValid() ? itemEntity.getItemStack().getAmount() : 0;
+                int pickedUp = amountBefore - amountAfter;
+                if (pickedUp <= 0) {
+                    return;
+                }
+
+                StableOrderingMap<OwnershipStatus, Integer> moved;
+                var status = table.getItemEntityOwner(itemEntityUuid);
+                if (status != null) {
+                    moved = OwnershipTable.splitOwnership(status, pickedUp, OwnershipStatus.sharedDropOrder());
+                    if (amountAfter == 0 || status.isEmpty()) {
+                        table.unsetItemEntityOwner(itemEntityUuid);
+                    }
+                } else {
+                    moved = new StableOrderingMap<>(OwnershipStatus.sharedTakeOrder(), OwnershipStatus::equals);
+                }
+
+                int untracked = pickedUp - moved.values().stream().mapToInt(Integer::intValue).sum();
+                if (untracked > 0) {
+                    moved.merge(OwnershipStatus.empty(), untracked, Integer::sum);
+                }
+
+                table.putItems(InventoryId.from(inventory), key, moved, OwnershipStatus.sharedTakeOrder());
+            }
+        );
+    }
+
+    /**
+     * Add a move to its source chunk's batch and return that chunk, or apply
+     * it right away and return null when the source isn't in the world.
+     */
+    private ChunkKey enqueue(Inventory source, Edge edge, int amount) {
+        Location location = source.getLocation();
+        if (location == null || location.getWorld() == null) {
+            // Not tied to a block or entity in the world; nothing to batch by
+            apply(edge, amount, List.of());
+            return null;
+        }
+
+        ChunkKey chunk = ChunkKey.from(location);
+        Map<Edge, Integer> batch = pendingMoves.get(chunk);
+        if (batch == null) {
+            batch = new LinkedHashMap<>();
+            pendingMoves.put(chunk, batch);
+            Scheduling.runAt(location, () -> flush(chunk));
+        }
+        batch.merge(edge, amount, Integer::sum);
+        return chunk;
+    }
+
+    private void flush(ChunkKey chunk) {
+        // A dispense that never spawned its item entity stops waiting here
+        lastDispense.remove();
+
+        Map<Edge, Integer> batch = pendingMoves.remove(chunk);
+        Map<Edge, List<DispensedItem>> spawned = pendingDispensed.remove(chunk);
+        if (batch == null) {
+            return;
+        }
+
+        for (Map.Entry<Edge, Integer> entry : batch.entrySet()) {
+            apply(
+                entry.getKey(),
+                entry.getValue(),
+                spawned != null ? spawned.getOrDefault(entry.getKey(), List.of()) : List.of()
+            );
+        }
+    }
+
+    private void apply(Edge edge, int amount, List<DispensedItem> spawned) {
+        if (edge.destination != null) {
+            table.moveItems(edge.source, edge.destination, edge.key, amount);
+            return;
+        }
+
+        StableOrderingMap<OwnershipStatus, Integer> taken =
+                table.takeItems(edge.source, edge.key, amount, OwnershipStatus.sharedDropOrder());
+        // Hand it out entity by entity; what no entity carries is gone with the items
+        for (DispensedItem item : spawned) {
+            if (taken.isEmpty()) {
+                break;
+            }
+            StableOrderingMap<OwnershipStatus, Integer> share = OwnershipTable.withoutTimers(
+                OwnershipTable.splitOwnership(taken, item.amount(), OwnershipStatus.sharedDropOrder())
+            );
+            Scheduling.runForEntity(item.entity(), () -> table.setItemEntityOwner(item.entity(), share));
+        }
+    }
+}
@@ -1,18 +1,20 @@
 package com.fairkeepinventory;
 
-import java.util.Map;
+import java.util.List;
 
+import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
-import org.bukkit.inventory.ItemStack;
 
 import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.workload.WorkloadRecorder;
 
 public class ItemDropOnDeath implements Listener {
     protected OwnershipTable table = OwnershipTable.getInstance();
+    protected WorkloadRecorder recorder = WorkloadRecorder.getInstance();
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerDeath(PlayerDeathEvent event) {
@@ -20,15 +22,16 @@ public class ItemDropOnDeath implements Listener {
         event.getDrops().clear();
 
         Player player = event.getEntity();
+        recorder.death(player.getUniqueId());
 
-        Map<ItemStack, Integer> removedItems = table.removeItems(player, status ->
+        List<OwnershipTable.RemovedStack> removedStacks = table.removeItems(player, status ->
             !status.isOwnedBy(player.getUniqueId())
         );
 
-        for (Map.Entry<ItemStack, Integer> entry: removedItems.entrySet()) {
-            ItemStack stack = new ItemStack(entry.getKey());
-            stack.setAmount(entry.getValue());
-            player.getWorld().dropItemNaturally(player.getLocation(), stack);
+        // One entity per full stack, tagged as it spawns
+        for (OwnershipTable.RemovedStack removed : removedStacks) {
+            Item itemEntity = player.getWorld().dropItemNaturally(player.getLocation(), removed.getStack());
+            table.setItemEntityOwner(itemEntity, OwnershipTable.withoutTimers(removed.getOwnership()));
         }
     }
 }
@@ -0,0 +1,111 @@
+package com.fairkeepinventory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Item;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+
+import com.fairkeepinventory.model.ChunkKey;
+import com.fairkeepinventory.model.OwnershipStatus;
+import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.Blocking;
+import com.fairkeepinventory.util.Database;
+import com.fairkeepinventory.util.Scheduling;
+import com.fairkeepinventory.util.StableOrderingMap;
+
+/**
+ * Moves item-entity ownership between memory and storage as chunks load and
+ * unload. Storage work runs on Blocking, one lane per chunk so a chunk's
+ * unload write never overtakes the read from its previous load.
+ */
+public class ItemEntityChunkLoad implements Listener {
+    protected OwnershipTable table = OwnershipTable.getInstance();
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        final List<Item> items = OwnershipTable.itemsOf(event.getEntities());
+        final Chunk chunk = event.getChunk();
+        final ChunkKey chunkKey = ChunkKey.from(chunk);
+        if (items.isEmpty()) {
+            // Nothing left to claim whatever is stored for the chunk
+            Blocking.supplyInOrder(chunkKey, () -> {
+                table.dropChunkBucket(Database.getInstance().getConnection(), chunkKey);
+                return null;
+            }).exceptionally(error -> {
+                FairKeepInventoryPlugin.getInstance().getLogger().warning(
+                    "Failed to drop item ownership for chunk: " + error.getMessage()
+                );
+                return null;
+            });
+            return;
+        }
+
+        Blocking.supplyInOrder(
+            chunkKey,
+            () -> table.takeChunkBucket(Database.getInstance().getConnection(), chunkKey)
+        ).whenComplete((stored, error) -> {
+            if (error != null) {
+                FairKeepInventoryPlugin.getInstance().getLogger().warning(
+                    "Failed to restore item ownership for chunk: " + error.getMessage()
+                );
+                return;
+            }
+            if (stored.isEmpty()) {
+                return;
+            }
+            Scheduling.runAt(centerOf(chunk), () -> {
+                if (!chunk.isEntitiesLoaded()) {
+                    // Unloaded again before we got here; put it all back
+                    restore(chunkKey, stored);
+                    return;
+                }
+                // Stored entries for entities that are no longer in the chunk are dropped
+                table.adoptChunkBucket(items, stored);
+            });
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        var evicted = table.evictChunk(event.getEntities());
+        if (!evicted.isEmpty()) {
+            store(ChunkKey.from(event.getChunk()), evicted);
+        }
+    }
+
+    private void store(ChunkKey chunkKey, Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket) {
+        Blocking.supplyInOrder(chunkKey, () -> {
+            table.writeChunkBucket(Database.getInstance().getConnection(), chunkKey, bucket);
+            return null;
+        }).exceptionally(error -> {
+            FairKeepInventoryPlugin.getInstance().getLogger().warning(
+                "Failed to store item ownership for chunk: " + error.getMessage()
+            );
+            return null;
+        });
+    }
+
+    private void restore(ChunkKey chunkKey, Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket) {
+        Blocking.supplyInOrder(chunkKey, () -> {
+            table.restoreChunkBucket(Database.getInstance().getConnection(), chunkKey, bucket);
+            return null;
+        }).exceptionally(error -> {
+            FairKeepInventoryPlugin.getInstance().getLogger().warning(
+                "Failed to store item ownership for chunk: " + error.getMessage()
+            );
+            return null;
+        });
+    }
+
+    private static Location centerOf(Chunk chunk) {
+        return new Location(chunk.getWorld(), (chunk.getX() << 4) + 8, 0, (chunk.getZ() << 4) + 8);
+    }
+}
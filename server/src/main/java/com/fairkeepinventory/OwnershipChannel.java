@@ -0,0 +1,814 @@
+package com.fairkeepinventory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import com.fairkeepinventory.model.InventoryId;
+import com.fairkeepinventory.model.ItemKeys;
+import com.fairkeepinventory.model.OwnershipSnapshot;
+import com.fairkeepinventory.model.OwnershipSummary;
+import com.fairkeepinventory.model.OwnershipSummaryCache;
+import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.Blocking;
+import com.fairkeepinventory.util.Metrics;
+import com.fairkeepinventory.util.OwnerNames;
+import com.fairkeepinventory.util.Scheduling;
+import com.fairkeepinventory.util.TokenBucket;
+import com.fairkeepinventory.util.VarInts;
+
+import io.papermc.paper.event.player.PlayerInventorySlotChangeEvent;
+
+/**
+ * The fairkeepinventory:ownership plugin channel to the client mod.
+ *
+ * Client -> server:
+ *   0x01 HELLO            [version varint, capabilities varint]
+ *   0x02 TOOLTIP_REQUEST  requestId int, containerType byte, slot int
+ *   0x05 BATCH_REQUEST    requestId int
+ * Server -> client:
+ *   0x03 TOOLTIP_RESPONSE requestId int, count byte, count x line UTF
+ *   0x04 SUMMARY          container
+ *   0x06 BATCH_RESPONSE   requestId int, containers byte, containers x container
+ *   0x07 HELLO_ACK        version varint, capabilities varint
+ *
+ * container, before version 2 or without CAP_STRUCTURED:
+ *   containerType byte, full boolean, count short,
+ *   count x (slot int, lines byte, lines x UTF)
+ *
+ * container, with CAP_STRUCTURED:
+ *   containerType byte, full boolean,
+ *   owners varint, owners x (ownerId varint, uuid long long, name UTF),
+ *   count varint, count x (slot varint, summary)
+ * summary:
+ *   total varint; 0 clears the slot, otherwise followed by
+ *   ownedByViewer varint, unowned varint, timerSeconds + 1 varint (0 = none),
+ *   [with CAP_TIMER_COUNTDOWN and a timer: rate varint, ageMillis varint]
+ *   others varint, others x (ownerId varint, amount varint)
+ *
+ * A HELLO without a body is a version 1 client. Otherwise the server answers
+ * with HELLO_ACK holding the lower of both versions and the capabilities both
+ * sides support. Owner ids are per session: each owner's UUID and name are
+ * sent once, in the first container that mentions them, and the client
+ * formats the lines itself.
+ *
+ * With CAP_TIMER_COUNTDOWN a timer comes with the rate it runs at (timer
+ * seconds per second, 0 while paused) and how long ago it was sampled, so
+ * the client counts down on its own. A running timer then only causes a
+ * SUMMARY when the client's countdown would be off by more than a tick.
+ *
+ * Each player's messages go through a token bucket; what doesn't fit is
+ * dropped. Requests are served on the player's next tick, and within a tick
+ * repeated TOOLTIP_REQUESTs for one slot, or repeated BATCH_REQUESTs, are
+ * answered once, for the latest request id.
+ *
+ * containerType is 0 for the player's own inventory, 1 for the open container.
+ *
+ * After a HELLO of version 2 or later with CAP_STRUCTURED, a player is
+ * subscribed to their own inventory, and to each container they open until
+ * they close it; other clients only get answers to their requests. A subscription gets one full
+ * SUMMARY, then a SUMMARY holding only the slots whose ownership changed
+ * whenever OwnershipTable publishes a new snapshot of the inventory or the
+ * player moves items. BATCH_REQUEST answers for every slot of the player
+ * inventory and the open container in one message. TOOLTIP_REQUEST still
+ * works for older clients.
+ */
+public class OwnershipChannel implements PluginMessageListener, Listener {
+    public static final String CHANNEL_ID = "fairkeepinventory:ownership";
+
+    private static final int HELLO = 0x01;
+    private static final int TOOLTIP_REQUEST = 0x02;
+    private static final int TOOLTIP_RESPONSE = 0x03;
+    private static final int SUMMARY = 0x04;
+    private static final int BATCH_REQUEST = 0x05;
+    private static final int BATCH_RESPONSE = 0x06;
+    private static final int HELLO_ACK = 0x07;
+
+    public static final int PROTOCOL_VERSION = 3;
+    // Structured summaries with an owner dictionary instead of lines
+    public static final int CAP_STRUCTURED = 1;
+    // Timers counted down by the client; needs CAP_STRUCTURED and version 3
+    public static final int CAP_TIMER_COUNTDOWN = 2;
+    private static final int SUPPORTED_CAPABILITIES = CAP_STRUCTURED | CAP_TIMER_COUNTDOWN;
+
+    private static final byte PLAYER_INVENTORY = 0;
+    private static final byte TOP_INVENTORY = 1;
+
+    // Safety cap on lines per tooltip
+    private static final int MAX_LINES = 10;
+
+    private static final class Subscription {
+        final Player player;
+        final InventoryId playerInventory;
+        // The open container, or null; set on the player's thread
+        volatile InventoryId top;
+
+        final AtomicBoolean refreshPending = new AtomicBoolean();
+        // Indexed by containerType: send everything next refresh, not a delta
+        final boolean[] fullPending = {true, true};
+
+        // Negotiated in HELLO
+        final int version;
+        final int capabilities;
+
+        // What the client was last sent, by containerType and slot, and the
+        // owner ids it knows. Only touched from the player's Blocking lane.
+        final List<Map<Integer, OwnershipSummary>> sent = List.of(new HashMap<>(), new HashMap<>());
+        final Map<UUID, Integer> ownerIds = new HashMap<>();
+
+        Subscription(Player player, int version, int capabilities) {
+            this.player = player;
+            this.playerInventory = InventoryId.from(player);
+            this.version = version;
+            this.capabilities = capabilities;
+        }
+
+        boolean structured() {
+            return version >= 2 && (capabilities & CAP_STRUCTURED) != 0;
+        }
+
+        boolean countdown() {
+            return structured() && version >= 3 && (capabilities & CAP_TIMER_COUNTDOWN) != 0;
+        }
+    }
+
+    /**
+     * A player's requests waiting for their next tick, and their rate limit.
+     * Guarded by itself.
+     */
+    private static final class Inbound {
+        final TokenBucket tokens;
+        // (containerType, slot) -> latest request id
+        final Map<Long, Integer> tooltips = new LinkedHashMap<>();
+        int batchRequestId;
+        boolean batchPending;
+        boolean flushScheduled;
+
+        Inbound(TokenBucket tokens) {
+            this.tokens = tokens;
+        }
+    }
+
+    private final Plugin plugin;
+    private final OwnershipTable table = OwnershipTable.getInstance();
+    private final OwnershipSummaryCache summaries;
+    private final Set<UUID> moddedPlayers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Subscription> subscriptions = new ConcurrentHashMap<>();
+    // Inventory -> players subscribed to it
+    private final Map<InventoryId, Set<UUID>> watchers = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Inbound> inbound = new ConcurrentHashMap<>();
+    private final double requestsPerSecond;
+    private final double requestBurst;
+    private final Metrics.Counter received = Metrics.counter(
+        "fki_channel_messages_total", "Plugin messages received from client mods"
+    );
+    private final Metrics.Counter merged = Metrics.counter(
+        "fki_channel_requests_merged_total", "Client requests folded into one already waiting for the same tick"
+    );
+    private final Metrics.Counter dropped = Metrics.counter(
+        "fki_channel_messages_dropped_total", "Plugin messages dropped by the per-player rate limit"
+    );
+    // Counts at the last report; only touched by reportCounters. The counters
+    // outlive a reload, so start from where they are.
+    private long reportedReceived = received.get();
+    private long reportedMerged = merged.get();
+    private long reportedDropped = dropped.get();
+
+    public OwnershipChannel(Plugin plugin) {
+        this.plugin = plugin;
+        this.summaries = new OwnershipSummaryCache(
+                Math.max(0, plugin.getConfig().getInt("client-mod.summary-cache-size", 4096)));
+        this.requestsPerSecond = Math.max(1.0, plugin.getConfig().getDouble("client-mod.rate-limit.per-second", 20.0));
+        this.requestBurst = Math.max(1.0, plugin.getConfig().getDouble("client-mod.rate-limit.burst", 40.0));
+        long reportTicks = 20L * Math.max(1, plugin.getConfig().getInt("client-mod.rate-limit.report-seconds", 300));
+        Scheduling.runGlobalTimer(this::reportCounters, reportTicks, reportTicks);
+        table.addSnapshotListener((inventoryId, snapshot) -> {
+            Set<UUID> watching = watchers.get(inventoryId);
+            if (watching != null) {
+                for (UUID playerId : watching) {
+                    requestRefresh(playerId);
+                }
+            }
+        });
+    }
+
+    // --- Incoming messages ---
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!CHANNEL_ID.equals(channel)) return;
+        if (message == null || message.length == 0) return;
+
+        received.increment();
+        if (!inboundOf(player).tokens.tryAcquire()) {
+            dropped.increment();
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            int type = in.readUnsignedByte();
+            switch (type) {
+                case HELLO -> handleHello(player, in);
+                case TOOLTIP_REQUEST -> handleTooltipRequest(player, in);
+                case BATCH_REQUEST -> handleBatchRequest(player, in);
+                default -> {
+                    // Unknown type; ignore
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to handle FairKeepInventory plugin message: " + e.getMessage());
+        }
+    }
+
+    private void handleHello(Player player, DataInputStream in) throws IOException {
+        // Version 1 clients send a bare HELLO
+        int version = 1;
+        int capabilities = 0;
+        if (in.available() > 0) {
+            version = Math.min(VarInts.read(in), PROTOCOL_VERSION);
+            capabilities = VarInts.read(in) & SUPPORTED_CAPABILITIES;
+        }
+
+        moddedPlayers.add(player.getUniqueId());
+        plugin.getLogger().info("Player " + player.getName() + " has FairKeepInventory client mod (protocol " + version + ").");
+
+        if (version >= 2) {
+            sendHelloAck(player, version, capabilities);
+        }
+
+        Subscription subscription = new Subscription(player, version, capabilities);
+        // Only structured clients get pushed summaries; the rest keep asking
+        Subscription previous = subscription.structured()
+                ? subscriptions.put(player.getUniqueId(), subscription)
+                : subscriptions.remove(player.getUniqueId());
+        if (previous != null) {
+            unwatch(previous.playerInventory, player.getUniqueId());
+            if (previous.top != null) {
+                unwatch(previous.top, player.getUniqueId());
+            }
+        }
+        if (!subscription.structured()) {
+            return;
+        }
+        watch(subscription.playerInventory, player.getUniqueId());
+        requestRefresh(player.getUniqueId());
+    }
+
+    private void handleTooltipRequest(Player player, DataInputStream in) throws IOException {
+        int requestId = in.readInt();
+        byte containerType = in.readByte();
+        int slotIndex = in.readInt();
+
+        Inbound pending = inboundOf(player);
+        synchronized (pending) {
+            long slotKey = ((long) containerType << 32) | (slotIndex & 0xFFFFFFFFL);
+            if (pending.tooltips.put(slotKey, requestId) != null) {
+                merged.increment();
+            }
+        }
+        scheduleFlush(player, pending);
+    }
+
+    private void handleBatchRequest(Player player, DataInputStream in) throws IOException {
+        int requestId = in.readInt();
+
+        Inbound pending = inboundOf(player);
+        synchronized (pending) {
+            if (pending.batchPending) {
+                merged.increment();
+            }
+            pending.batchRequestId = requestId;
+            pending.batchPending = true;
+        }
+        scheduleFlush(player, pending);
+    }
+
+    private Inbound inboundOf(Player player) {
+        return inbound.computeIfAbsent(player.getUniqueId(),
+                k -> new Inbound(new TokenBucket(requestsPerSecond, requestBurst)));
+    }
+
+    private void scheduleFlush(Player player, Inbound pending) {
+        synchronized (pending) {
+            if (pending.flushScheduled) return;
+            pending.flushScheduled = true;
+        }
+        Scheduling.runForEntity(player, () -> flush(player, pending));
+    }
+
+    /**
+     * Serve what a player asked for since the last flush, on their thread.
+     */
+    private void flush(Player player, Inbound pending) {
+        Map<Long, Integer> tooltips;
+        int batchRequestId;
+        boolean batch;
+        synchronized (pending) {
+            pending.flushScheduled = false;
+            tooltips = new LinkedHashMap<>(pending.tooltips);
+            pending.tooltips.clear();
+            batchRequestId = pending.batchRequestId;
+            batch = pending.batchPending;
+            pending.batchPending = false;
+        }
+        if (!player.isOnline()) return;
+
+        if (batch) {
+            serveBatch(player, batchRequestId);
+        }
+        for (Map.Entry<Long, Integer> e : tooltips.entrySet()) {
+            byte containerType = (byte) (e.getKey() >> 32);
+            int slotIndex = (int) e.getKey().longValue();
+            serveTooltip(player, e.getValue(), containerType, slotIndex);
+        }
+    }
+
+    private void reportCounters() {
+        long droppedTotal = dropped.get();
+        long mergedTotal = merged.get();
+        long receivedTotal = received.get();
+        long droppedCount = droppedTotal - reportedDropped;
+        long mergedCount = mergedTotal - reportedMerged;
+        long receivedCount = receivedTotal - reportedReceived;
+        reportedDropped = droppedTotal;
+        reportedMerged = mergedTotal;
+        reportedReceived = receivedTotal;
+        if (droppedCount > 0) {
+            plugin.getLogger().info("FairKeepInventory channel: " + receivedCount + " messages, "
+                    + mergedCount + " merged, " + droppedCount + " dropped by the rate limit.");
+        }
+    }
+
+    private void serveTooltip(Player player, int requestId, byte containerType, int slotIndex) {
+        // Find the item on this thread; the rest only needs the snapshot and
+        // may block on owner names, so it runs on Blocking
+        Inventory inv = inventoryFor(player, containerType);
+        if (inv == null || slotIndex < 0 || slotIndex >= inv.getSize()) {
+            sendTooltipResponse(player, requestId, List.of());
+            return;
+        }
+        ItemStack stack = inv.getItem(slotIndex);
+        if (stack == null || stack.getType().isAir()) {
+            sendTooltipResponse(player, requestId, List.of());
+            return;
+        }
+
+        // Normalize to the same key OwnershipTable uses
+        final InventoryId invId = InventoryId.from(inv);
+        final ItemStack key = ItemKeys.of(stack);
+        final UUID playerId = player.getUniqueId();
+
+        Blocking.supply(() -> summaries.lines(invId, key, playerId, table.getSnapshot(invId), OwnerNames::resolve))
+            .whenComplete((lines, error) -> {
+                if (error != null) {
+                    plugin.getLogger().warning("Failed to build FairKeepInventory tooltip: " + error.getMessage());
+                    return;
+                }
+                Scheduling.runForEntity(player, () -> sendTooltipResponse(player, requestId, lines));
+            });
+    }
+
+    private void serveBatch(Player player, int requestId) {
+        UUID playerId = player.getUniqueId();
+
+        // A subscriber's deltas continue from this reply, so the pending full
+        // summaries it replaces are not sent again
+        Subscription subscription = subscriptions.get(playerId);
+        List<Map<Integer, OwnershipSummary>> sent;
+        if (subscription != null) {
+            synchronized (subscription.fullPending) {
+                subscription.fullPending[PLAYER_INVENTORY] = false;
+                subscription.fullPending[TOP_INVENTORY] = false;
+            }
+            sent = subscription.sent;
+        } else {
+            sent = List.of(new HashMap<>(), new HashMap<>());
+        }
+
+        final Contents contents = contentsOf(player);
+        if (subscription != null) {
+            rewatch(subscription, contents.topId());
+        }
+
+        Blocking.supplyInOrder(playerId, () -> {
+            try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                 DataOutputStream out = new DataOutputStream(baos)) {
+
+                out.writeByte(BATCH_RESPONSE);
+                out.writeInt(requestId);
+                out.writeByte(contents.topKeys() != null ? 2 : 1);
+                writeContainer(out, subscription, PLAYER_INVENTORY, true,
+                        diff(playerId, sent.get(PLAYER_INVENTORY), InventoryId.from(player), contents.playerKeys(), true, false));
+                if (contents.topKeys() != null) {
+                    writeContainer(out, subscription, TOP_INVENTORY, true,
+                            diff(playerId, sent.get(TOP_INVENTORY), contents.topId(), contents.topKeys(), true, false));
+                }
+                out.flush();
+                return baos.toByteArray();
+            }
+        }).whenComplete((message, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to build FairKeepInventory batch response: " + error.getMessage());
+                return;
+            }
+            Scheduling.runForEntity(player, () -> send(player, message));
+        });
+    }
+
+    private static Inventory inventoryFor(Player player, byte containerType) {
+        if (containerType == PLAYER_INVENTORY) {
+            return player.getInventory();
+        }
+        return player.getOpenInventory() != null
+                ? player.getOpenInventory().getTopInventory()
+                : null;
+    }
+
+    // --- Subscriptions ---
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        if (!(event.getPlayer() instanceof Player player)) return;
+        Subscription subscription = subscriptions.get(player.getUniqueId());
+        if (subscription == null) return;
+
+        // The container is resolved on the next refresh: by then the player is
+        // a viewer of it and the client has the window the summary is for
+        synchronized (subscription.fullPending) {
+            subscription.fullPending[TOP_INVENTORY] = true;
+        }
+        requestRefresh(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        Subscription subscription = subscriptions.get(event.getPlayer().getUniqueId());
+        if (subscription == null || subscription.top == null) return;
+
+        unwatch(subscription.top, event.getPlayer().getUniqueId());
+        subscription.top = null;
+    }
+
+    // Items can move between slots without any ownership changing
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        requestRefresh(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        requestRefresh(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerInventorySlotChange(PlayerInventorySlotChangeEvent event) {
+        requestRefresh(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        moddedPlayers.remove(playerId);
+        inbound.remove(playerId);
+        Subscription subscription = subscriptions.remove(playerId);
+        if (subscription != null) {
+            unwatch(subscription.playerInventory, playerId);
+            if (subscription.top != null) {
+                unwatch(subscription.top, playerId);
+            }
+        }
+    }
+
+    private void watch(InventoryId inventoryId, UUID playerId) {
+        watchers.computeIfAbsent(inventoryId, k -> ConcurrentHashMap.newKeySet()).add(playerId);
+    }
+
+    private void unwatch(InventoryId inventoryId, UUID playerId) {
+        watchers.computeIfPresent(inventoryId, (k, watching) -> {
+            watching.remove(playerId);
+            return watching.isEmpty() ? null : watching;
+        });
+    }
+
+    /**
+     * Refresh a subscriber on their next tick. Any number of requests in one
+     * tick collapse into one refresh.
+     */
+    private void requestRefresh(UUID playerId) {
+        Subscription subscription = subscriptions.get(playerId);
+        if (subscription == null) return;
+
+        if (subscription.refreshPending.compareAndSet(false, true)) {
+            Scheduling.runForEntity(subscription.player, () -> refresh(subscription));
+        }
+    }
+
+    /**
+     * On the player's thread: read which key is in each slot, then diff
+     * against what the client has on Blocking and send what changed.
+     */
+    private void refresh(Subscription subscription) {
+        subscription.refreshPending.set(false);
+        Player player = subscription.player;
+        if (!player.isOnline() || subscriptions.get(player.getUniqueId()) != subscription) return;
+
+        boolean[] full = new boolean[2];
+        synchronized (subscription.fullPending) {
+            full[PLAYER_INVENTORY] = subscription.fullPending[PLAYER_INVENTORY];
+            full[TOP_INVENTORY] = subscription.fullPending[TOP_INVENTORY];
+            subscription.fullPending[PLAYER_INVENTORY] = false;
+            subscription.fullPending[TOP_INVENTORY] = false;
+        }
+
+        final Contents contents = contentsOf(player);
+        rewatch(subscription, contents.topId());
+
+        final UUID playerId = player.getUniqueId();
+        Blocking.supplyInOrder(playerId, () -> {
+            List<byte[]> messages = new ArrayList<>(2);
+            byte[] message = encodeSummary(subscription, PLAYER_INVENTORY, full[PLAYER_INVENTORY],
+                    diff(playerId, subscription.sent.get(PLAYER_INVENTORY), subscription.playerInventory, contents.playerKeys(), full[PLAYER_INVENTORY], subscription.countdown()));
+            if (message != null) messages.add(message);
+            if (contents.topKeys() != null) {
+                message = encodeSummary(subscription, TOP_INVENTORY, full[TOP_INVENTORY],
+                        diff(playerId, subscription.sent.get(TOP_INVENTORY), contents.topId(), contents.topKeys(), full[TOP_INVENTORY], subscription.countdown()));
+                if (message != null) messages.add(message);
+            }
+            return messages;
+        }).whenComplete((messages, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to build FairKeepInventory summary: " + error.getMessage());
+                return;
+            }
+            if (!messages.isEmpty()) {
+                Scheduling.runForEntity(player, () -> messages.forEach(m -> send(player, m)));
+            }
+        });
+    }
+
+    /**
+     * The key in every slot of the player's inventory and open container,
+     * read on the player's thread. topId and topKeys are null when no
+     * container is open.
+     */
+    private record Contents(ItemStack[] playerKeys, InventoryId topId, ItemStack[] topKeys) {
+    }
+
+    private static Contents contentsOf(Player player) {
+        Inventory top = player.getOpenInventory().getTopInventory();
+        if (top.getType() == InventoryType.CRAFTING) {
+            return new Contents(keysOf(player.getInventory()), null, null);
+        }
+        return new Contents(keysOf(player.getInventory()), InventoryId.from(top), keysOf(top));
+    }
+
+    /**
+     * Follow the player into whatever container they have open now.
+     */
+    private void rewatch(Subscription subscription, InventoryId topId) {
+        if (Objects.equals(topId, subscription.top)) return;
+
+        UUID playerId = subscription.player.getUniqueId();
+        if (subscription.top != null) {
+            unwatch(subscription.top, playerId);
+        }
+        if (topId != null) {
+            watch(topId, playerId);
+        }
+        subscription.top = topId;
+    }
+
+    private static ItemStack[] keysOf(Inventory inventory) {
+        ItemStack[] contents = inventory.getContents();
+        ItemStack[] keys = new ItemStack[contents.length];
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack stack = contents[slot];
+            if (stack != null && !stack.isEmpty()) {
+                keys[slot] = ItemKeys.of(stack);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * The slots whose summary differs from {@code sent}, or every non-empty
+     * slot when {@code full}, and record them in {@code sent}. Each key is
+     * aggregated once, however many slots hold it. Call from the player's
+     * Blocking lane.
+     *
+     * With {@code countdown}, a summary whose timer only moved as the client
+     * counts it down is not a change; {@code sent} keeps the one the client
+     * counts from.
+     */
+    private Map<Integer, OwnershipSummary> diff(
+            UUID viewer,
+            Map<Integer, OwnershipSummary> sent,
+            InventoryId inventoryId,
+            ItemStack[] keys,
+            boolean full,
+            boolean countdown
+    ) {
+        OwnershipSnapshot snapshot = table.getSnapshot(inventoryId);
+        long now = System.nanoTime();
+        Map<ItemStack, OwnershipSummary> byKey = new HashMap<>();
+        if (full) {
+            sent.clear();
+        }
+
+        Map<Integer, OwnershipSummary> changed = new LinkedHashMap<>();
+        for (int slot = 0; slot < keys.length; slot++) {
+            ItemStack key = keys[slot];
+            OwnershipSummary summary = key == null
+                    ? OwnershipSummary.NONE
+                    : byKey.computeIfAbsent(key, k -> summaries.get(inventoryId, k, viewer, snapshot));
+
+            OwnershipSummary previous = sent.getOrDefault(slot, OwnershipSummary.NONE);
+            if (countdown ? summary.sameCountdown(previous, now) : summary.equals(previous)) continue;
+            changed.put(slot, summary);
+            if (summary.isEmpty()) {
+                sent.remove(slot);
+            } else {
+                sent.put(slot, summary);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * SUMMARY for one container, or null if there is nothing to tell.
+     */
+    private static byte[] encodeSummary(
+            Subscription subscription,
+            byte containerType,
+            boolean full,
+            Map<Integer, OwnershipSummary> changed
+    ) throws IOException {
+        if (changed.isEmpty() && !full) {
+            return null;
+        }
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream out = new DataOutputStream(baos)) {
+
+            out.writeByte(SUMMARY);
+            writeContainer(out, subscription, containerType, full, changed);
+            out.flush();
+            return baos.toByteArray();
+        }
+    }
+
+    /**
+     * One container in the subscriber's negotiated format. A null
+     * subscription, for players that never sent HELLO, gets lines.
+     */
+    private static void writeContainer(
+            DataOutputStream out,
+            Subscription subscription,
+            byte containerType,
+            boolean full,
+            Map<Integer, OwnershipSummary> slots
+    ) throws IOException {
+        if (subscription != null && subscription.structured()) {
+            writeStructuredContainer(out, subscription.ownerIds, subscription.countdown(), containerType, full, slots);
+            return;
+        }
+
+        out.writeByte(containerType);
+        out.writeBoolean(full);
+        out.writeShort(slots.size());
+        for (Map.Entry<Integer, OwnershipSummary> e : slots.entrySet()) {
+            List<String> lines = e.getValue().toLines(OwnerNames::resolve);
+            int count = Math.min(MAX_LINES, lines.size());
+            out.writeInt(e.getKey());
+            out.writeByte(count);
+            for (int i = 0; i < count; i++) {
+                out.writeUTF(lines.get(i));
+            }
+        }
+    }
+
+    private static void writeStructuredContainer(
+            DataOutputStream out,
+            Map<UUID, Integer> ownerIds,
+            boolean countdown,
+            byte containerType,
+            boolean full,
+            Map<Integer, OwnershipSummary> slots
+    ) throws IOException {
+        out.writeByte(containerType);
+        out.writeBoolean(full);
+
+        // Define owners the client has not been told about yet
+        List<UUID> newOwners = new ArrayList<>();
+        for (OwnershipSummary summary : slots.values()) {
+            for (UUID owner : summary.getOwnedByOthers().keySet()) {
+                if (!ownerIds.containsKey(owner)) {
+                    ownerIds.put(owner, ownerIds.size());
+                    newOwners.add(owner);
+                }
+            }
+        }
+        VarInts.write(out, newOwners.size());
+        for (UUID owner : newOwners) {
+            VarInts.write(out, ownerIds.get(owner));
+            out.writeLong(owner.getMostSignificantBits());
+            out.writeLong(owner.getLeastSignificantBits());
+            out.writeUTF(OwnerNames.resolve(owner));
+        }
+
+        VarInts.write(out, slots.size());
+        for (Map.Entry<Integer, OwnershipSummary> e : slots.entrySet()) {
+            OwnershipSummary summary = e.getValue();
+            VarInts.write(out, e.getKey());
+            VarInts.write(out, summary.getTotal());
+            if (summary.isEmpty()) continue;
+
+            VarInts.write(out, summary.getOwnedByViewer());
+            VarInts.write(out, summary.getUnowned());
+            VarInts.write(out, summary.getViewerTimerSeconds() + 1);
+            if (countdown && summary.getViewerTimerSeconds() >= 0) {
+                long ageMillis = (System.nanoTime() - summary.getSampledAtNanos()) / 1_000_000L;
+                VarInts.write(out, summary.getTimerRate());
+                VarInts.write(out, (int) Math.min(Integer.MAX_VALUE, Math.max(0L, ageMillis)));
+            }
+            VarInts.write(out, summary.getOwnedByOthers().size());
+            for (Map.Entry<UUID, Integer> other : summary.getOwnedByOthers().entrySet()) {
+                VarInts.write(out, ownerIds.get(other.getKey()));
+                VarInts.write(out, other.getValue());
+            }
+        }
+    }
+
+    // --- Outgoing messages ---
+
+    private void sendHelloAck(Player player, int version, int capabilities) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream out = new DataOutputStream(baos)) {
+
+            out.writeByte(HELLO_ACK);
+            VarInts.write(out, version);
+            VarInts.write(out, capabilities);
+            out.flush();
+
+            send(player, baos.toByteArray());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to send FairKeepInventory hello ack: " + e.getMessage());
+        }
+    }
+
+    private void sendTooltipResponse(Player player, int requestId, List<String> lines) {
+        if (player == null || !player.isOnline()) return;
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream out = new DataOutputStream(baos)) {
+
+            out.writeByte(TOOLTIP_RESPONSE);
+            out.writeInt(requestId);
+
+            int count = Math.min(MAX_LINES, lines.size());
+            out.writeByte(count);
+            for (int i = 0; i < count; i++) {
+                out.writeUTF(lines.get(i));
+            }
+
+            send(player, baos.toByteArray());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to send FairKeepInventory tooltip response: " + e.getMessage());
+        }
+    }
+
+    private void send(Player player, byte[] message) {
+        if (player.isOnline()) {
+            player.sendPluginMessage(plugin, CHANNEL_ID, message);
+        }
+    }
+}
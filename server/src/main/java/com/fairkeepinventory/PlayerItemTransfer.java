@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,42 +20,65 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.BlockDispenseEvent;
 import org.bukkit.event.block.BlockDropItemEvent;
 import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.entity.EntityRemoveEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
+import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
-import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 import com.fairkeepinventory.model.InventoryId;
 import com.fairkeepinventory.model.OwnershipStatus;
 import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.OwnerNames;
+import com.fairkeepinventory.util.Scheduling;
 import com.fairkeepinventory.util.StableOrderingMap;
+import com.fairkeepinventory.workload.WorkloadRecorder;
 
 import io.papermc.paper.event.player.PlayerInventorySlotChangeEvent;
 
 public class PlayerItemTransfer implements Listener {
     protected OwnershipTable table = OwnershipTable.getInstance();
+    protected WorkloadRecorder recorder = WorkloadRecorder.getInstance();
     
     // Blocking queue for thread synchronization
     private final Map<UUID, BlockingQueue<StableOrderingMap<OwnershipStatus, Integer>>> pendingDropQueues = new ConcurrentHashMap<>();
     
+    // Players whose drop this tick came from an inventory click, already recorded there
+    private final Set<UUID> clickDrops = ConcurrentHashMap.newKeySet();
+
     private BlockingQueue<StableOrderingMap<OwnershipStatus, Integer>> getOrCreateQueue(UUID playerId) {
         return pendingDropQueues.computeIfAbsent(playerId, k -> new LinkedBlockingQueue<>());
     }
 
+    /**
+     * Mark the drop that follows this click as recorded. Cleared after a
+     * tick in case the drop never happens.
+     */
+    private void expectClickDrop(Player player) {
+        UUID playerId = player.getUniqueId();
+        clickDrops.add(playerId);
+        Scheduling.runForEntity(player, () -> clickDrops.remove(playerId));
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerDrop(PlayerDropItemEvent event) {
         Player player = event.getPlayer();
         Item itemEntity = event.getItemDrop();
         UUID playerId = player.getUniqueId();
+        if (!clickDrops.remove(playerId)) {
+            // Dropped with the drop key outside an inventory screen: straight out of the player's inventory
+            ItemStack dropped = itemEntity.getItemStack();
+            recorder.lose(player.getInventory(), dropped, dropped.getAmount());
+        }
         
         // Spawn thread to wait for ownership data from inventory event
         new Thread(() -> {
@@ -67,18 +91,18 @@ public class PlayerItemTransfer implements Listener {
 
                 if (ownership != null) {
                     // Got ownership data - register immediately
-                    Bukkit.getScheduler().runTask(FairKeepInventoryPlugin.getInstance(), () -> {
-                        table.setItemEntityOwner(itemEntity.getUniqueId(), ownership);
+                    Scheduling.runForEntity(itemEntity, () -> {
+                        table.setItemEntityOwner(itemEntity, ownership);
                     });
                 } else {
                     // Timeout - fallback to delayed registration
-                    Bukkit.getScheduler().runTaskLater(FairKeepInventoryPlugin.getInstance(), () -> {
+                    Scheduling.runForEntityLater(itemEntity, () -> {
                         table.InstantiatePlayerDroppedItems(playerId, itemEntity);
                     }, 2L);
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                Bukkit.getScheduler().runTaskLater(FairKeepInventoryPlugin.getInstance(), () -> {
+                Scheduling.runForEntityLater(itemEntity, () -> {
                     table.InstantiatePlayerDroppedItems(playerId, itemEntity);
                 }, 2L);
             }
@@ -91,12 +115,10 @@ public class PlayerItemTransfer implements Listener {
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockDropItem(BlockDropItemEvent event) {}
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onBlockDispense(BlockDispenseEvent event) {}
-
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityRemove(EntityRemoveEvent event) {
         if (event.getCause() == EntityRemoveEvent.Cause.UNLOAD) {
+            // Evicted per chunk by ItemEntityChunkLoad
             return;
         }
 
@@ -110,8 +132,9 @@ public class PlayerItemTransfer implements Listener {
             Bukkit.getLogger().info("removed items: " + removedItemStack);
             Bukkit.getLogger().info("removed location: " + removedLocation);
 
-            // Now delay to ensure thread completion
-            Bukkit.getScheduler().runTaskLater(FairKeepInventoryPlugin.getInstance(), () -> {
+            // Now delay to ensure thread completion. The entity is gone, so run
+            // on whichever region owns the spot it merged at.
+            Scheduling.runAtLater(removedLocation, () -> {
                 var removedOwnership = table.getItemEntityOwner(removedUuid);
                 Bukkit.getLogger().info("removed ownership: " + removedOwnership);
 
@@ -142,7 +165,7 @@ public class PlayerItemTransfer implements Listener {
                         Bukkit.getLogger().info("existing ownership: " + existingOwnership);
 
                         if (existingOwnership == null || existingOwnership.isEmpty()) {
-                            table.setItemEntityOwner(targetItem.getUniqueId(), removedOwnership);
+                            table.setItemEntityOwner(targetItem, removedOwnership);
                         } else {
                             StableOrderingMap<OwnershipStatus, Integer> merged = new StableOrderingMap<>(
                                 existingOwnership.getOrderComparator(),
@@ -155,7 +178,7 @@ public class PlayerItemTransfer implements Listener {
                             }
                             Bukkit.getLogger().info("merged ownership: " + merged);
 
-                            table.setItemEntityOwner(targetItem.getUniqueId(), merged);
+                            table.setItemEntityOwner(targetItem, merged);
                         }
                     }
                 }
@@ -165,9 +188,10 @@ public class PlayerItemTransfer implements Listener {
             return;
         }
         
-        Bukkit.getScheduler().runTaskLater(
-            FairKeepInventoryPlugin.getInstance(), 
-            () -> table.unsetItemEntityOwner(event.getEntity().getUniqueId()), 
+        final UUID removedUuid = event.getEntity().getUniqueId();
+        Scheduling.runAtLater(
+            event.getEntity().getLocation(),
+            () -> table.unsetItemEntityOwner(removedUuid),
             20L
         );
     }
@@ -178,10 +202,12 @@ public class PlayerItemTransfer implements Listener {
         Item itemEntity = event.getItem();
         UUID itemEntityUuid = itemEntity.getUniqueId();
         ItemStack item = itemEntity.getItemStack().asOne();
-        Inventory inventory = InventoryId.from(entity).getInventory();
-        table.trackInventory(inventory);
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        InventoryId inventoryId = InventoryId.from(entity);
+        Inventory inventory = inventoryId.getInventory();
+        recorder.gain(inventoryId, itemEntity.getItemStack(), itemEntity.getItemStack().getAmount());
+        table.trackInventoryIfUntracked(inventory);
+        Scheduling.runForEntity(
+            entity,
             () -> {
                 var status = table.getItemEntityOwner(itemEntityUuid);
                 table.unsetItemEntityOwner(itemEntityUuid);
@@ -203,26 +229,30 @@ public class PlayerItemTransfer implements Listener {
                     }
                 }
                 if (status != null && !status.isEmpty()) {
-                    table.setItemEntityOwner(itemEntityUuid, status);
+                    table.setItemEntityOwner(itemEntity, status);
                 }
             }
         );
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onInventoryPickupItem(InventoryPickupItemEvent event) {}
-
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerJoin(PlayerJoinEvent event) {
+        OwnerNames.remember(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+        // Once per session, not per action: puts a new player's inventories in
+        // the table, where the auditor can see them, and takes in anything
+        // changed while they were offline without waiting for two audit passes
         table.trackPlayerInventory(event.getPlayer());
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        table.forgetSlotIndex(event.getPlayer().getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerInventorySlotChange(PlayerInventorySlotChangeEvent event) {
-        Bukkit.getScheduler().runTaskLater(
-            FairKeepInventoryPlugin.getInstance(), () -> {
-            table.trackPlayerInventory(event.getPlayer());
-        }, 20L);
+        // Drift from changes no listener models is left to the consistency auditor
+        table.updateSlot(event.getPlayer(), event.getSlot(), event.getNewItemStack());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -238,11 +268,29 @@ public class PlayerItemTransfer implements Listener {
         Inventory topInventory = event.getView().getTopInventory();
         Inventory bottomInventory = event.getView().getBottomInventory();
         int topSize = topInventory.getSize();
+        for (Map.Entry<Integer, ItemStack> entry : newItems.entrySet()) {
+            // New items are the slot's whole stack after the drag; record only what was added
+            ItemStack before = event.getView().getItem(entry.getKey());
+            int added = entry.getValue().getAmount()
+                - (before != null && before.isSimilar(entry.getValue()) ? before.getAmount() : 0);
+            recorder.put(
+                player.getUniqueId(),
+                entry.getKey() < topSize ? topInventory : bottomInventory,
+                oldCursor,
+                added
+            );
+        }
         
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        Scheduling.runForEntity(
+            player,
             () -> {
                 var cursorStatus = table.getCursor(player.getUniqueId());
+                if (cursorStatus == null) {
+                    // Nothing tracked on the cursor; give what was placed the default status
+                    table.trackInventory(topInventory);
+                    table.trackInventory(bottomInventory);
+                    return;
+                }
                 
                 // Create a working copy with remaining amounts
                 StableOrderingMap<OwnershipStatus, Integer> remainingCursor = new StableOrderingMap<>(
@@ -352,14 +400,20 @@ public class PlayerItemTransfer implements Listener {
             case PICKUP_HALF:
             case PICKUP_ONE: {
                 ItemStack pickedUp = new ItemStack(clickedItemStack);
-                table.trackInventory(event.getClickedInventory());
+                final int amount = switch (event.getAction()) {
+                    case PICKUP_HALF -> (pickedUp.getAmount() + 1) / 2;
+                    case PICKUP_ONE -> 1;
+                    default -> pickedUp.getAmount();
+                };
+                recorder.take(player.getUniqueId(), clickedInventory, pickedUp, amount);
+                table.trackInventoryIfUntracked(clickedInventory);
                 // Bukkit.getLogger().info("Before pick up: " + Arrays.asList(clickedInventory.getContents()));
-                Bukkit.getScheduler().runTask(
-                    FairKeepInventoryPlugin.getInstance(),
+                Scheduling.runForEntity(
+                    player,
                     () -> {
                         // Bukkit.getLogger().info("After picked up: " + Arrays.asList(clickedInventory.getContents()));
                         // Bukkit.getLogger().info("Picked up stack: " + pickedUp);
-                        var status = table.syncItemLost(clickedInventory, pickedUp).get(pickedUp.asOne());
+                        var status = table.syncItemLost(clickedInventory, pickedUp, amount).get(pickedUp.asOne());
                         // for (var each: status.entrySet()) {
                         //     Bukkit.getLogger().info(
                         //         "owner: " + (each.getKey().isOwned() ? each.getKey().getOwnerUuid() : "") +
@@ -367,17 +421,37 @@ public class PlayerItemTransfer implements Listener {
                         //         "amount: " + each.getValue()
                         //     );
                         // }
-                        table.setCursor(player.getUniqueId(), pickedUp.asOne(), status);
+                        if (status != null) {
+                            table.setCursor(player.getUniqueId(), pickedUp.asOne(), status);
+                        } else {
+                            // Nothing was tracked; placing it gives it the default status
+                            table.takeCursor(player.getUniqueId());
+                        }
                     });
                 break;
             }
             case PLACE_ALL:
             case PLACE_SOME:
             case PLACE_ONE: {
-                table.trackInventory(event.getClickedInventory());
+                recorder.put(
+                    player.getUniqueId(),
+                    clickedInventory,
+                    cursorItemStack,
+                    switch (event.getAction()) {
+                        case PLACE_ONE -> 1;
+                        // Only what fits on top of the slot's stack
+                        case PLACE_SOME -> Math.min(
+                            cursorItemStack.getAmount(),
+                            Math.min(clickedItemStack.getMaxStackSize(), clickedInventory.getMaxStackSize())
+                                - clickedItemStack.getAmount()
+                        );
+                        default -> cursorItemStack.getAmount();
+                    }
+                );
+                table.trackInventoryIfUntracked(clickedInventory);
                 ItemStack placedItem = cursorItemStack.asOne();
-                Bukkit.getScheduler().runTask(
-                    FairKeepInventoryPlugin.getInstance(),
+                Scheduling.runForEntity(
+                    player,
                     () -> {
                         var status = table.takeCursor(player.getUniqueId());
                         if (status != null) {
@@ -393,15 +467,31 @@ public class PlayerItemTransfer implements Listener {
                 // Bukkit.getLogger().info("SWAP_WITH_CURSOR");
                 final ItemStack cursor = new ItemStack(cursorItemStack);
                 final ItemStack clicked = new ItemStack(clickedItemStack);
-                Bukkit.getScheduler().runTask(FairKeepInventoryPlugin.getInstance(), () -> {
-                    table.syncItemGet(clickedInventory, cursor, table.takeCursor(player.getUniqueId()).getAmount());
+                recorder.put(player.getUniqueId(), clickedInventory, cursor, cursor.getAmount());
+                recorder.take(player.getUniqueId(), clickedInventory, clicked, clicked.getAmount());
+                table.trackInventoryIfUntracked(clickedInventory);
+                Scheduling.runForEntity(player, () -> {
+                    var cursorStatus = table.takeCursor(player.getUniqueId());
+                    if (cursorStatus != null) {
+                        table.syncItemGet(clickedInventory, cursor, cursorStatus.getAmount());
+                    } else {
+                        table.syncItemGet(clickedInventory, cursor, Optional.empty());
+                    }
                     var status = table.syncItemLost(clickedInventory, clicked, clicked.getAmount()).get(clicked.asOne());
-                    table.setCursor(player.getUniqueId(), clicked.asOne(), status);
+                    if (status != null) {
+                        table.setCursor(player.getUniqueId(), clicked.asOne(), status);
+                    }
                 });
                 break;
             }
             case DROP_ALL_CURSOR: {
+                recorder.drop(player.getUniqueId(), cursorItemStack, cursorItemStack.getAmount());
+                expectClickDrop(player);
                 var status = table.takeCursor(player.getUniqueId());
+                if (status == null) {
+                    // Untracked; the dropped item falls back to InstantiatePlayerDroppedItems
+                    break;
+                }
                 var amount = status.getAmount();
                 
                 StableOrderingMap<OwnershipStatus, Integer> amountWithoutTimers = new StableOrderingMap<>(
@@ -431,7 +521,13 @@ public class PlayerItemTransfer implements Listener {
             }
             
             case DROP_ONE_CURSOR: {
+                recorder.drop(player.getUniqueId(), cursorItemStack, 1);
+                expectClickDrop(player);
                 var status = table.getCursor(player.getUniqueId());
+                if (status == null) {
+                    // Untracked; the dropped item falls back to InstantiatePlayerDroppedItems
+                    break;
+                }
                 var amount = status.getAmount();
                 amount.setOrderComparator(OwnershipStatus.playerDropOrder(player.getUniqueId()));
                 var first = amount.entrySet().stream().findFirst().orElse(null);
@@ -469,7 +565,13 @@ public class PlayerItemTransfer implements Listener {
             case DROP_ONE_SLOT: {
                 final ItemStack dropped = clickedItemStack.asOne();
                 final UUID playerId = player.getUniqueId();
-                Bukkit.getScheduler().runTask(FairKeepInventoryPlugin.getInstance(), () -> {
+                expectClickDrop(player);
+                recorder.lose(
+                    clickedInventory,
+                    clickedItemStack,
+                    event.getAction() == InventoryAction.DROP_ONE_SLOT ? 1 : clickedItemStack.getAmount()
+                );
+                Scheduling.runForEntity(player, () -> {
                     for (var entry: table.syncItemLost(clickedInventory, dropped).entrySet()) {
                         Bukkit.getLogger().info("sending ownership for " + entry.getKey() + ": " + entry.getValue());
                         // Signal waiting thread
@@ -489,16 +591,33 @@ public class PlayerItemTransfer implements Listener {
                     // Bukkit.getLogger().info("top and bottom are both not clickedInventory");
                     return;
                 }
-                table.trackInventory(clickedInventory);
-                table.trackInventory(destination);
                 final Inventory dest = destination;
-                Bukkit.getScheduler().runTask(
-                    FairKeepInventoryPlugin.getInstance(),
+
+                if (event.getSlotType() == InventoryType.SlotType.RESULT) {
+                    // Shift-crafting refills the result slot, so what left the slot
+                    // isn't what moved; whatever the destination gained is.
+                    final int destinationBefore = amountOf(dest, stackToMove);
+                    Scheduling.runForEntity(
+                        player,
+                        () -> {
+                            int crafted = amountOf(dest, stackToMove) - destinationBefore;
+                            recorder.move(clickedInventory, dest, stackToMove, crafted);
+                            table.transferItems(clickedInventory, dest, stackToMove, crafted);
+                        }
+                    );
+                    break;
+                }
+
+                final int slot = event.getSlot();
+                final int amountBefore = stackToMove.getAmount();
+                Scheduling.runForEntity(
+                    player,
                     () -> {
-                        // Bukkit.getLogger().info("Moving " + stackToMove + " from " + InventoryId.from(clickedInventory) + " to " + InventoryId.from(dest));
-                        // Bukkit.getLogger().info("clicked inventory: " + Arrays.asList(clickedInventory.getStorageContents()));
-                        // Bukkit.getLogger().info("destination: " + Arrays.asList(dest.getStorageContents()));
-                        table.syncItemTransfer(clickedInventory, dest, stackToMove);
+                        // Whatever left the clicked slot went to the other inventory
+                        ItemStack left = clickedInventory.getItem(slot);
+                        int amountAfter = left != null && left.isSimilar(stackToMove) ? left.getAmount() : 0;
+                        recorder.move(clickedInventory, dest, stackToMove, amountBefore - amountAfter);
+                        table.transferItems(clickedInventory, dest, stackToMove, amountBefore - amountAfter);
                     }
                 );
                 break;
@@ -509,6 +628,7 @@ public class PlayerItemTransfer implements Listener {
             case CLONE_STACK:
                 break;
             case COLLECT_TO_CURSOR:
+                recorder.take(player.getUniqueId(), clickedInventory, clickedItemStack, clickedItemStack.getAmount());
                 table.syncItemLost(clickedInventory, clickedItemStack);
                 break;
             case UNKNOWN:
@@ -536,14 +656,35 @@ public class PlayerItemTransfer implements Listener {
         final Inventory craftingInventory = event.getInventory();
         final Inventory playerInventory = event.getWhoClicked().getInventory();
         final ItemStack craftingResult = event.getRecipe().getResult();
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        // A shift-craft is also an InventoryClickEvent; its RESULT branch
+        // accounts for the player inventory's side exactly
+        final boolean shiftCraft = event.isShiftClick();
+        if (!shiftCraft) {
+            recorder.gain(InventoryId.from(playerInventory), craftingResult, craftingResult.getAmount());
+        }
+        Scheduling.runForEntity(
+            event.getWhoClicked(),
             () -> {
                 table.syncItemGet(craftingInventory, craftingResult, Optional.empty());
                 table.trackInventory(craftingInventory);
-                table.syncItemGet(playerInventory, craftingResult, Optional.empty());
-                table.trackInventory(playerInventory);
+                if (!shiftCraft) {
+                    table.syncItemGet(playerInventory, craftingResult, Optional.empty());
+                    table.trackInventory(playerInventory);
+                }
             }
         );
     }
+
+    /**
+     * How many items like {@code stack} the inventory holds.
+     */
+    private static int amountOf(Inventory inventory, ItemStack stack) {
+        int amount = 0;
+        for (ItemStack content : inventory.getContents()) {
+            if (content != null && content.isSimilar(stack)) {
+                amount += content.getAmount();
+            }
+        }
+        return amount;
+    }
 }
@@ -0,0 +1,86 @@
+package com.fairkeepinventory;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.ElapsedSeconds;
+import com.fairkeepinventory.util.Scheduling;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Ticks each online player's ownership timers from a timer scheduled on the
+ * player itself, so the work follows the player to whichever region owns
+ * them instead of one task walking every inventory on the server. Offline
+ * players cost nothing: their ender chest is suspended on quit and caught up
+ * in one go when they come back.
+ *
+ * The timer is scheduled every 20 ticks, but ticks by the seconds that
+ * actually passed, so ownership timers keep wall-clock time when TPS drops.
+ */
+public class PlayerTimerTick implements Listener {
+    protected OwnershipTable table = OwnershipTable.getInstance();
+    private final Map<UUID, ScheduledTask> tasks = new ConcurrentHashMap<>();
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        start(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        ScheduledTask task = tasks.remove(event.getPlayer().getUniqueId());
+        if (task != null) {
+            task.cancel();
+        }
+        table.suspendEnderChest(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Start ticking a player. Also used on enable for players already online.
+     */
+    public void start(Player player) {
+        UUID playerId = player.getUniqueId();
+        // Apply the time the ender chest spent suspended before ticking resumes
+        table.settleEnderChest(playerId);
+        // Only touched by this player's timer
+        ElapsedSeconds elapsed = new ElapsedSeconds(table.getPlatform()::nanoTime);
+        ScheduledTask task = Scheduling.runForEntityTimer(
+            player,
+            () -> {
+                int seconds = elapsed.take();
+                if (seconds <= 0) {
+                    // Ran early; the fraction counts towards the next run
+                    return;
+                }
+                table.tickPlayer(
+                    playerId,
+                    seconds * OwnershipTable.INVENTORY_TICK_SECONDS,
+                    seconds * OwnershipTable.ENDER_CHEST_TICK_SECONDS,
+                    // A result arriving after the player left is still applied, on the thread retiring
+                    // them or, once they're gone, on the global region that owns offline players
+                    applyTask -> {
+                        if (!Scheduling.runForEntity(player, applyTask, applyTask)) {
+                            Scheduling.runGlobal(applyTask);
+                        }
+                    }
+                );
+            },
+            20L,
+            20L
+        );
+        ScheduledTask previous = tasks.put(playerId, task);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.fairkeepinventory;
 
-import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -14,17 +13,22 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import com.fairkeepinventory.model.ItemKeys;
 import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.util.Scheduling;
+import com.fairkeepinventory.workload.WorkloadRecorder;
 
 public class PlayerUseItem implements Listener {
     protected OwnershipTable table = OwnershipTable.getInstance();
+    protected WorkloadRecorder recorder = WorkloadRecorder.getInstance();
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
         final Inventory inventory = event.getPlayer().getInventory();
         final ItemStack itemType = event.getItemInHand().asOne();
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        recorder.lose(inventory, itemType, 1);
+        Scheduling.runForEntity(
+            event.getPlayer(),
             () -> table.syncItemLost(inventory, itemType, 1)
         );
     }
@@ -33,8 +37,9 @@ public class PlayerUseItem implements Listener {
     public void onPlayerItemBreak(PlayerItemBreakEvent event) {
         final Inventory inventory = event.getPlayer().getInventory();
         final ItemStack itemType = event.getBrokenItem().asOne();
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        recorder.lose(inventory, itemType, 1);
+        Scheduling.runForEntity(
+            event.getPlayer(),
             () -> table.syncItemLost(inventory, itemType, 1)
         );
     }
@@ -43,19 +48,24 @@ public class PlayerUseItem implements Listener {
     public void onPlayerItemConsume(PlayerItemConsumeEvent event) {
         final Inventory inventory = event.getPlayer().getInventory();
         final ItemStack itemType = event.getItem().asOne();
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        recorder.lose(inventory, itemType, 1);
+        Scheduling.runForEntity(
+            event.getPlayer(),
             () -> table.syncItemLost(inventory, itemType, 1)
         );
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerItemDamage(PlayerItemDamageEvent event) {
+        if (ItemKeys.isIgnored(ItemKeys.Component.DAMAGE)) {
+            // Damage isn't part of the ownership key; nothing to rekey
+            return;
+        }
         final ItemStack item = event.getItem().asOne();
         final int damage = event.getDamage();
         final Inventory inventory = event.getPlayer().getInventory();
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        Scheduling.runForEntity(
+            event.getPlayer(),
             () -> {
                 ItemStack damagedItem = item.asOne();
                 Damageable meta = (Damageable) damagedItem.getItemMeta();
@@ -69,11 +79,14 @@ public class PlayerUseItem implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerItemMend(PlayerItemMendEvent event) {
+        if (ItemKeys.isIgnored(ItemKeys.Component.DAMAGE)) {
+            return;
+        }
         final ItemStack item = event.getItem().asOne();
         final int mendAmount = event.getRepairAmount();
         final Inventory inventory = event.getPlayer().getInventory();
-        Bukkit.getScheduler().runTask(
-            FairKeepInventoryPlugin.getInstance(),
+        Scheduling.runForEntity(
+            event.getPlayer(),
             () -> {
                 ItemStack mendedItem = item.asOne();
                 Damageable meta = (Damageable) mendedItem.getItemMeta();
@@ -0,0 +1,92 @@
+package com.fairkeepinventory.model;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+
+public final class ChunkKey {
+    private final UUID worldId;
+    private final int x;
+    private final int z;
+
+    public ChunkKey(UUID worldId, int x, int z) {
+        this.worldId = Objects.requireNonNull(worldId, "worldId");
+        this.x = x;
+        this.z = z;
+    }
+
+    public static ChunkKey from(Chunk chunk) {
+        return new ChunkKey(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+    }
+
+    public static ChunkKey from(Location location) {
+        return new ChunkKey(
+            location.getWorld().getUID(),
+            location.getBlockX() >> 4,
+            location.getBlockZ() >> 4
+        );
+    }
+
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChunkKey)) return false;
+        ChunkKey other = (ChunkKey) o;
+        return x == other.x
+            && z == other.z
+            && worldId.equals(other.worldId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(worldId, x, z);
+    }
+
+    @Override
+    public String toString() {
+        return "chunk:" + worldId + "[" + x + "," + z + "]";
+    }
+
+    /**
+     * Serialize this ChunkKey to a compact string.
+     *
+     * Format: worldUuid|x|z
+     */
+    public String serialize() {
+        return worldId + "|" + x + "|" + z;
+    }
+
+    /**
+     * Deserialize a string produced by serialize().
+     */
+    public static ChunkKey deserialize(String data) {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("ChunkKey string is null/empty");
+        }
+
+        String[] parts = data.split("\\|");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid ChunkKey: " + data);
+        }
+
+        return new ChunkKey(
+            UUID.fromString(parts[0]),
+            Integer.parseInt(parts[1]),
+            Integer.parseInt(parts[2])
+        );
+    }
+}
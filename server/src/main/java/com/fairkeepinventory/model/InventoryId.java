@@ -293,7 +293,8 @@ public abstract class InventoryId {
     }
 
     public static InventoryId from(Inventory inventory) {
-        InventoryHolder holder = inventory.getHolder();
+        // No snapshot: we only need the holder's identity, not a copy of its state
+        InventoryHolder holder = inventory.getHolder(false);
 
         // Double chests do not implement BlockState
         if (holder instanceof DoubleChest doubleChest) {
@@ -329,6 +330,10 @@ public abstract class InventoryId {
         return new VirtualInventoryId(new VirtualInventoryId.Id());
     }
 
+    public static PlayerInventoryId player(UUID playerId, InventoryType inventoryType) {
+        return new PlayerInventoryId(new PlayerInventoryId.Id(playerId, inventoryType));
+    }
+
     public static InventoryId from(Entity entity) {
         if (entity instanceof Player player) {
             return new PlayerInventoryId(playerId(player, InventoryType.PLAYER));
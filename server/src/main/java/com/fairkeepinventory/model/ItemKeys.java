@@ -0,0 +1,125 @@
+package com.fairkeepinventory.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.Repairable;
+
+/**
+ * Builds the amount = 1 ItemStack keys that OwnershipTable maps are keyed by.
+ *
+ * Components listed as ignored are reset on the key, so items that differ
+ * only in those components share one ownership record. With DAMAGE ignored,
+ * a pickaxe keeps its ownership record while it wears down or gets mended.
+ */
+public final class ItemKeys {
+    public enum Component {
+        DAMAGE {
+            @Override
+            protected boolean reset(ItemMeta meta) {
+                if (meta instanceof Damageable damageable && damageable.hasDamage()) {
+                    damageable.setDamage(0);
+                    return true;
+                }
+                return false;
+            }
+        },
+        REPAIR_COST {
+            @Override
+            protected boolean reset(ItemMeta meta) {
+                if (meta instanceof Repairable repairable && repairable.hasRepairCost()) {
+                    repairable.setRepairCost(0);
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        /**
+         * Reset this component on the meta. Returns whether anything changed.
+         */
+        protected abstract boolean reset(ItemMeta meta);
+    }
+
+    private static volatile Set<Component> ignored = Collections.emptySet();
+
+    private ItemKeys() {
+    }
+
+    /**
+     * Set the ignored components from config names such as "damage" or
+     * "repair_cost". Unknown names are logged and skipped.
+     */
+    public static void configure(Collection<String> names, Logger logger) {
+        Set<Component> components = EnumSet.noneOf(Component.class);
+        for (String name : names) {
+            try {
+                components.add(Component.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Unknown item key component in config: " + name);
+            }
+        }
+        ignored = Collections.unmodifiableSet(components);
+    }
+
+    public static Set<Component> getIgnored() {
+        return ignored;
+    }
+
+    public static boolean isIgnored(Component component) {
+        return ignored.contains(component);
+    }
+
+    /**
+     * The ownership key for a stack: a copy with amount 1 and every ignored
+     * component reset.
+     */
+    public static ItemStack of(ItemStack stack) {
+        ItemStack key = stack.asOne();
+
+        Set<Component> components = ignored;
+        if (components.isEmpty() || !key.hasItemMeta()) {
+            return key;
+        }
+
+        ItemMeta meta = key.getItemMeta();
+        boolean changed = false;
+        for (Component component : components) {
+            changed |= component.reset(meta);
+        }
+        if (changed) {
+            key.setItemMeta(meta);
+        }
+        return key;
+    }
+
+    /**
+     * Whether a stack (of any amount) belongs under the given key.
+     */
+    public static boolean matches(ItemStack stack, ItemStack key) {
+        if (stack == null || stack.isEmpty()) {
+            return false;
+        }
+        if (stack.isSimilar(key)) {
+            return true;
+        }
+        return !ignored.isEmpty() && of(stack).isSimilar(key);
+    }
+
+    /**
+     * Whether two stacks map to the same key.
+     */
+    public static boolean similar(ItemStack a, ItemStack b) {
+        if (a.isSimilar(b)) {
+            return true;
+        }
+        return !ignored.isEmpty() && of(a).isSimilar(of(b));
+    }
+}
@@ -0,0 +1,146 @@
+package com.fairkeepinventory.model;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.inventory.ItemStack;
+
+import com.fairkeepinventory.util.StableOrderingMap;
+
+/**
+ * Immutable copy of one inventory's ownership records, safe to read from any
+ * thread. OwnershipTable publishes a new one after the inventory changes.
+ *
+ * Consecutive snapshots share the bucket lists of keys that did not change,
+ * so publishing after a small change only copies what changed.
+ */
+public final class OwnershipSnapshot {
+    public static final OwnershipSnapshot EMPTY = new OwnershipSnapshot(0L, 0L, Collections.emptyMap());
+
+    private final long version;
+    // Platform.nanoTime() when the records were copied
+    private final long sampledAtNanos;
+    private final Map<ItemStack, List<Map.Entry<OwnershipStatus, Integer>>> buckets;
+
+    private OwnershipSnapshot(
+            long version,
+            long sampledAtNanos,
+            Map<ItemStack, List<Map.Entry<OwnershipStatus, Integer>>> buckets
+    ) {
+        this.version = version;
+        this.sampledAtNanos = sampledAtNanos;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Copy the live records, reusing {@code previous}'s list for any key whose
+     * bucket still holds the same entries in the same order.
+     */
+    static OwnershipSnapshot of(
+            Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> live,
+            OwnershipSnapshot previous,
+            long sampledAtNanos
+    ) {
+        long version = previous.version + 1;
+        if (live == null || live.isEmpty()) {
+            return new OwnershipSnapshot(version, sampledAtNanos, Collections.emptyMap());
+        }
+
+        Map<ItemStack, List<Map.Entry<OwnershipStatus, Integer>>> buckets = new HashMap<>();
+        for (Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> entry : live.entrySet()) {
+            StableOrderingMap<OwnershipStatus, Integer> records = entry.getValue();
+            if (records.isEmpty()) {
+                continue;
+            }
+
+            List<Map.Entry<OwnershipStatus, Integer>> old = previous.buckets.get(entry.getKey());
+            if (old != null && sameEntries(records, old)) {
+                buckets.put(entry.getKey(), old);
+                continue;
+            }
+
+            List<Map.Entry<OwnershipStatus, Integer>> copy = new ArrayList<>(records.size());
+            for (Map.Entry<OwnershipStatus, Integer> e : records.entrySet()) {
+                copy.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()));
+            }
+            buckets.put(entry.getKey(), Collections.unmodifiableList(copy));
+        }
+        return new OwnershipSnapshot(version, sampledAtNanos, Collections.unmodifiableMap(buckets));
+    }
+
+    /**
+     * Whether the records hold exactly these entries, in this order.
+     */
+    static boolean sameEntries(
+            Map<OwnershipStatus, Integer> records,
+            List<Map.Entry<OwnershipStatus, Integer>> entries
+    ) {
+        if (records.size() != entries.size()) {
+            return false;
+        }
+
+        Iterator<Map.Entry<OwnershipStatus, Integer>> it = records.entrySet().iterator();
+        for (Map.Entry<OwnershipStatus, Integer> expected : entries) {
+            Map.Entry<OwnershipStatus, Integer> actual = it.next();
+            if (!actual.getKey().equals(expected.getKey())
+                    || !actual.getValue().equals(expected.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bumped every time the inventory's snapshot is republished.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Platform.nanoTime() when the timers in this snapshot had the remaining
+     * seconds it holds.
+     */
+    public long getSampledAtNanos() {
+        return sampledAtNanos;
+    }
+
+    public boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+
+    /**
+     * ItemKeys key -> buckets in the inventory's current order.
+     */
+    public Map<ItemStack, List<Map.Entry<OwnershipStatus, Integer>>> getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Buckets for one ItemKeys key, or an empty list.
+     */
+    public List<Map.Entry<OwnershipStatus, Integer>> get(ItemStack key) {
+        return buckets.getOrDefault(key, Collections.emptyList());
+    }
+
+    /**
+     * Same format as StableOrderingMap.serialize with OwnershipStatus keys.
+     */
+    public static String serializeBucket(List<Map.Entry<OwnershipStatus, Integer>> bucket) {
+        StringBuilder sb = new StringBuilder();
+        boolean first = true;
+        for (Map.Entry<OwnershipStatus, Integer> e : bucket) {
+            if (!first) {
+                sb.append(";");
+            }
+            first = false;
+            sb.append(e.getKey().serialize()).append("=").append(e.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,223 @@
+package com.fairkeepinventory.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * What one player sees for one item key in one inventory: how many items
+ * are theirs, unowned or owned by others, and their own shortest timer.
+ *
+ * Built once per key from a snapshot; every slot holding that key shares it.
+ * The viewer's timer is as of the snapshot, counting down at timerRate
+ * seconds per second from then.
+ */
+public final class OwnershipSummary {
+    public static final OwnershipSummary NONE =
+            new OwnershipSummary(0, 0, 0, Collections.emptyMap(), -1, 0, 0L);
+
+    private final int total;
+    private final int ownedByViewer;
+    private final int unowned;
+    private final Map<UUID, Integer> ownedByOthers;
+    // Smallest remaining seconds of the viewer's own timers, or -1
+    private final int viewerTimerSeconds;
+    // Timer seconds lost per second; 0 while the inventory isn't ticked
+    private final int timerRate;
+    // System.nanoTime() at which viewerTimerSeconds was current
+    private final long sampledAtNanos;
+
+    private OwnershipSummary(
+            int total,
+            int ownedByViewer,
+            int unowned,
+            Map<UUID, Integer> ownedByOthers,
+            int viewerTimerSeconds,
+            int timerRate,
+            long sampledAtNanos
+    ) {
+        this.total = total;
+        this.ownedByViewer = ownedByViewer;
+        this.unowned = unowned;
+        this.ownedByOthers = ownedByOthers;
+        this.viewerTimerSeconds = viewerTimerSeconds;
+        this.timerRate = timerRate;
+        this.sampledAtNanos = sampledAtNanos;
+    }
+
+    /**
+     * Aggregate one key's buckets in a single pass, for timers that are not
+     * running.
+     */
+    public static OwnershipSummary of(UUID viewer, List<Map.Entry<OwnershipStatus, Integer>> buckets) {
+        return of(viewer, buckets, 0, 0L);
+    }
+
+    /**
+     * Aggregate one key's buckets in a single pass, sampled at
+     * {@code sampledAtNanos} from an inventory ticking at {@code timerRate}.
+     */
+    public static OwnershipSummary of(
+            UUID viewer,
+            List<Map.Entry<OwnershipStatus, Integer>> buckets,
+            int timerRate,
+            long sampledAtNanos
+    ) {
+        int total = 0;
+        int ownedByViewer = 0;
+        int unowned = 0;
+        Map<UUID, Integer> ownedByOthers = new LinkedHashMap<>();
+        int minTimer = Integer.MAX_VALUE;
+
+        for (Map.Entry<OwnershipStatus, Integer> e : buckets) {
+            OwnershipStatus status = e.getKey();
+            int amt = e.getValue() != null ? e.getValue() : 0;
+
+            // Timer display: only the viewer's own timers matter
+            Optional<OwnershipStatus.Timer> timer = status.getTimer();
+            if (timer.isPresent() && viewer.equals(timer.get().getPlayerId())) {
+                minTimer = Math.min(minTimer, timer.get().getRemainingSeconds());
+            }
+
+            if (amt <= 0) continue;
+            total += amt;
+
+            // empty() / timered() => unowned; owned() / claimingOwned() => owner
+            UUID owner = status.getOwnerUuid().orElse(null);
+            if (owner == null) {
+                unowned += amt;
+            } else if (owner.equals(viewer)) {
+                ownedByViewer += amt;
+            } else {
+                ownedByOthers.merge(owner, amt, Integer::sum);
+            }
+        }
+
+        if (total <= 0) {
+            return NONE;
+        }
+        return new OwnershipSummary(
+                total,
+                ownedByViewer,
+                unowned,
+                Collections.unmodifiableMap(ownedByOthers),
+                minTimer == Integer.MAX_VALUE ? -1 : minTimer,
+                minTimer == Integer.MAX_VALUE ? 0 : timerRate,
+                sampledAtNanos
+        );
+    }
+
+    public boolean isEmpty() {
+        return total <= 0;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getOwnedByViewer() {
+        return ownedByViewer;
+    }
+
+    public int getUnowned() {
+        return unowned;
+    }
+
+    public Map<UUID, Integer> getOwnedByOthers() {
+        return ownedByOthers;
+    }
+
+    public int getViewerTimerSeconds() {
+        return viewerTimerSeconds;
+    }
+
+    public int getTimerRate() {
+        return timerRate;
+    }
+
+    public long getSampledAtNanos() {
+        return sampledAtNanos;
+    }
+
+    /**
+     * The viewer's timer extrapolated to {@code nanos}, or -1 without one.
+     */
+    public int timerSecondsAt(long nanos) {
+        if (viewerTimerSeconds < 0) {
+            return -1;
+        }
+        long elapsedSeconds = Math.max(0L, nanos - sampledAtNanos) / 1_000_000_000L;
+        return (int) Math.max(0L, viewerTimerSeconds - elapsedSeconds * timerRate);
+    }
+
+    /**
+     * Whether a client counting down from {@code other} still shows what this
+     * summary says: the same amounts and rate, and a timer at most one tick
+     * apart at {@code nanos}.
+     */
+    public boolean sameCountdown(OwnershipSummary other, long nanos) {
+        if (total != other.total
+                || ownedByViewer != other.ownedByViewer
+                || unowned != other.unowned
+                || timerRate != other.timerRate
+                || (viewerTimerSeconds < 0) != (other.viewerTimerSeconds < 0)
+                || !ownedByOthers.equals(other.ownedByOthers)) {
+            return false;
+        }
+        return Math.abs(timerSecondsAt(nanos) - other.timerSecondsAt(nanos)) <= timerRate;
+    }
+
+    /**
+     * The tooltip lines shown by clients that format nothing themselves.
+     * {@code names} may block, so call this off the server threads.
+     */
+    public List<String> toLines(Function<UUID, String> names) {
+        List<String> lines = new ArrayList<>();
+        if (isEmpty()) {
+            return lines;
+        }
+
+        lines.add("§8FairKeepInventory:");
+
+        if (ownedByViewer > 0) {
+            lines.add("§aOwned by you: §f" + ownedByViewer + " / " + total);
+        }
+        if (unowned > 0) {
+            lines.add("§7Unowned: §f" + unowned + " / " + total);
+        }
+        for (Map.Entry<UUID, Integer> e : ownedByOthers.entrySet()) {
+            lines.add("§cOwned by " + names.apply(e.getKey()) + ": §f" + e.getValue());
+        }
+
+        if (viewerTimerSeconds >= 0) {
+            lines.add("§bTimer: §f" + viewerTimerSeconds + "s until fully owned");
+        }
+
+        return lines;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OwnershipSummary other)) return false;
+        return total == other.total
+                && ownedByViewer == other.ownedByViewer
+                && unowned == other.unowned
+                && viewerTimerSeconds == other.viewerTimerSeconds
+                && timerRate == other.timerRate
+                && ownedByOthers.equals(other.ownedByOthers);
+    }
+
+    // The sample time is left out: a summary re-read from an unchanged,
+    // republished snapshot is the same summary
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, ownedByViewer, unowned, ownedByOthers, viewerTimerSeconds, timerRate);
+    }
+}
@@ -0,0 +1,105 @@
+package com.fairkeepinventory.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Summaries and tooltip lines already built for a viewer, by inventory and
+ * item key. Several viewers of one chest, or one client asking again, reuse
+ * them until the inventory's version moves on.
+ *
+ * An entry is only returned for the snapshot version it was built from; a
+ * newer snapshot replaces it. At most {@code maxEntries} are kept, least
+ * recently used first out. Safe from any thread.
+ */
+public final class OwnershipSummaryCache {
+    private record Key(InventoryId inventoryId, ItemStack itemKey, UUID viewer) {
+    }
+
+    private static final class Entry {
+        final long version;
+        final OwnershipSummary summary;
+        // Built on first use; names may block
+        volatile List<String> lines;
+
+        Entry(long version, OwnershipSummary summary) {
+            this.version = version;
+            this.summary = summary;
+        }
+    }
+
+    private final Map<Key, Entry> entries;
+
+    public OwnershipSummaryCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The viewer's summary of one key in this snapshot of the inventory.
+     */
+    public OwnershipSummary get(InventoryId inventoryId, ItemStack itemKey, UUID viewer, OwnershipSnapshot snapshot) {
+        return entry(inventoryId, itemKey, viewer, snapshot).summary;
+    }
+
+    /**
+     * Like get, as tooltip lines. {@code names} may block, so call this off
+     * the server threads.
+     */
+    public List<String> lines(
+            InventoryId inventoryId,
+            ItemStack itemKey,
+            UUID viewer,
+            OwnershipSnapshot snapshot,
+            Function<UUID, String> names
+    ) {
+        Entry entry = entry(inventoryId, itemKey, viewer, snapshot);
+        List<String> lines = entry.lines;
+        if (lines == null) {
+            lines = List.copyOf(entry.summary.toLines(names));
+            entry.lines = lines;
+        }
+        return lines;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Entry entry(InventoryId inventoryId, ItemStack itemKey, UUID viewer, OwnershipSnapshot snapshot) {
+        Key key = new Key(inventoryId, itemKey, viewer);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == snapshot.getVersion()) {
+                return entry;
+            }
+        }
+
+        // Aggregate outside the lock; a racing builder just does the same work
+        Entry built = new Entry(snapshot.getVersion(), OwnershipSummary.of(
+                viewer,
+                snapshot.get(itemKey),
+                OwnershipTable.getInstance().timerRate(inventoryId),
+                snapshot.getSampledAtNanos()
+        ));
+        synchronized (entries) {
+            Entry current = entries.get(key);
+            if (current != null && current.version >= built.version) {
+                return current.version == built.version ? current : built;
+            }
+            entries.put(key, built);
+        }
+        return built;
+    }
+}
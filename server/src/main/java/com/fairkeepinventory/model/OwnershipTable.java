@@ -6,25 +6,44 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
+import com.fairkeepinventory.platform.BukkitPlatform;
+import com.fairkeepinventory.platform.Platform;
+import com.fairkeepinventory.util.Metrics;
 import com.fairkeepinventory.util.StableOrderingMap;
+import com.fairkeepinventory.util.WorkScheduler;
 
 public class OwnershipTable {
     public static final class InventoryCursorStack {
@@ -37,7 +56,7 @@ public class OwnershipTable {
         }
 
         public void setItemType(ItemStack itemType) {
-            this.itemType = itemType.asOne();
+            this.itemType = ItemKeys.of(itemType);
         }
 
         public ItemStack getItemType() {
@@ -53,19 +72,116 @@ public class OwnershipTable {
         }
     }
 
-    private static final OwnershipTable INSTANCE = new OwnershipTable();
-    private final Map<InventoryId, Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>>> table = new HashMap<>();
-    private final Map<UUID, InventoryCursorStack> cursor = new HashMap<>();
-    private final Map<UUID, Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>>> playerDroppedItems = new HashMap<>();
-    private final Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> itemEntities = new HashMap<>();
+    public static final class RemovedStack {
+        private final ItemStack stack;
+        private final StableOrderingMap<OwnershipStatus, Integer> ownership;
 
-    private OwnershipTable() {
+        protected RemovedStack(ItemStack stack, StableOrderingMap<OwnershipStatus, Integer> ownership) {
+            this.stack = stack;
+            this.ownership = ownership;
+        }
+
+        public ItemStack getStack() {
+            return stack;
+        }
+
+        public StableOrderingMap<OwnershipStatus, Integer> getOwnership() {
+            return ownership;
+        }
+    }
+
+    // Timer seconds ticked off per second: a player's inventory while they
+    // are online, and every ender chest
+    public static final int INVENTORY_TICK_SECONDS = 1;
+    public static final int ENDER_CHEST_TICK_SECONDS = 10;
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+
+    private static final OwnershipTable INSTANCE = new OwnershipTable(BukkitPlatform.INSTANCE, true);
+
+    // The outer maps are shared by every region thread. Each inner map belongs
+    // to whoever owns its key (a player, a block, an entity or a chunk) and is
+    // only touched from that owner's region, so plain maps suffice there.
+    private final Map<InventoryId, Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>>> table = new ConcurrentHashMap<>();
+    private final Map<UUID, InventoryCursorStack> cursor = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>>> playerDroppedItems = new ConcurrentHashMap<>();
+    // Item entity ownership, bucketed by the chunk the entity was last seen in
+    private final Map<ChunkKey, Map<UUID, StableOrderingMap<OwnershipStatus, Integer>>> itemEntities = new ConcurrentHashMap<>();
+    private final Map<UUID, ChunkKey> itemEntityChunks = new ConcurrentHashMap<>();
+    // Rows from the legacy flat table whose entity has not been seen in a loaded chunk yet
+    private final Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> detachedItemEntities = new ConcurrentHashMap<>();
+    // Slot -> key index of each player's main inventory
+    private final Map<UUID, SlotIndex> slotIndexes = new ConcurrentHashMap<>();
+    // Published read-only copies of `table`, and the inventories waiting on a new one
+    private final Map<InventoryId, OwnershipSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<InventoryId> dirtyInventories = ConcurrentHashMap.newKeySet();
+    private final List<BiConsumer<InventoryId, OwnershipSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+    // Offline players' ender chests, by player: when their timers were last applied
+    private final Map<UUID, Long> enderChestsSuspendedAt = new ConcurrentHashMap<>();
+
+    private final Platform platform;
+
+    // Only the plugin's table reports these; replays and benchmarks would
+    // otherwise show up in the live server's numbers. Overloads that call
+    // each other are timed at each level.
+    private final Metrics.Timer syncItemGetTimer;
+    private final Metrics.Timer syncItemLostTimer;
+    private final Metrics.Timer syncItemTransferTimer;
+    private final Metrics.Timer transferItemsTimer;
+    private final Metrics.Timer trackInventoryTimer;
+    private final Metrics.Timer tickInventoryTimer;
+    private final Metrics.Timer persistTimer;
+    private final Metrics.Timer loadTimer;
+
+    // Package-private for the benchmarks in server-jmh; the plugin uses the
+    // Bukkit-backed instance
+    OwnershipTable(Platform platform) {
+        this(platform, false);
+    }
+
+    private OwnershipTable(Platform platform, boolean reported) {
+        this.platform = platform;
+        this.syncItemGetTimer = operationTimer("sync_item_get", reported);
+        this.syncItemLostTimer = operationTimer("sync_item_lost", reported);
+        this.syncItemTransferTimer = operationTimer("sync_item_transfer", reported);
+        this.transferItemsTimer = operationTimer("transfer_items", reported);
+        this.trackInventoryTimer = operationTimer("track_inventory", reported);
+        this.tickInventoryTimer = operationTimer("tick_inventory", reported);
+        this.persistTimer = operationTimer("persist", reported);
+        this.loadTimer = operationTimer("load", reported);
     }
 
     public static OwnershipTable getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * Presence, clock and scheduling this table runs on.
+     */
+    public Platform getPlatform() {
+        return platform;
+    }
+
+    private static Metrics.Timer operationTimer(String operation, boolean reported) {
+        if (!reported) {
+            return Metrics.unregisteredTimer();
+        }
+        return Metrics.timer(
+            "fki_table_operation_seconds",
+            "Time spent in OwnershipTable operations",
+            "operation",
+            operation
+        );
+    }
+
+    /**
+     * A table of its own on the given platform, sharing nothing with the
+     * plugin's, not even its metrics; for replaying recorded workloads.
+     */
+    public static OwnershipTable detached(Platform platform) {
+        return new OwnershipTable(platform);
+    }
+
     public void setCursor(UUID playerId, ItemStack stack, StableOrderingMap<OwnershipStatus, Integer> amount) {
         cursor.put(playerId, new InventoryCursorStack(new ItemStack(stack), amount));
     }
@@ -78,22 +194,48 @@ public class OwnershipTable {
         return cursor.remove(playerId);
     }
 
-    public void setItemEntityOwner(UUID itemUuid, StableOrderingMap<OwnershipStatus, Integer> status) {
-        itemEntities.put(itemUuid, status);
+    public void setItemEntityOwner(Item itemEntity, StableOrderingMap<OwnershipStatus, Integer> status) {
+        UUID itemUuid = itemEntity.getUniqueId();
+        ChunkKey chunk = ChunkKey.from(itemEntity.getLocation());
+
+        ChunkKey previous = itemEntityChunks.put(itemUuid, chunk);
+        if (previous != null && !previous.equals(chunk)) {
+            removeFromChunkBucket(previous, itemUuid);
+        }
+        // An item can drift into a chunk owned by a neighbouring region, so buckets are shared
+        itemEntities.computeIfAbsent(chunk, k -> new ConcurrentHashMap<>()).put(itemUuid, status);
     }
 
     public StableOrderingMap<OwnershipStatus, Integer> getItemEntityOwner(UUID itemUuid) {
-        return itemEntities.get(itemUuid);
+        ChunkKey chunk = itemEntityChunks.get(itemUuid);
+        if (chunk == null) {
+            return null;
+        }
+        var bucket = itemEntities.get(chunk);
+        return bucket != null ? bucket.get(itemUuid) : null;
     }
 
     public void unsetItemEntityOwner(UUID itemUuid) {
-        itemEntities.remove(itemUuid);
+        ChunkKey chunk = itemEntityChunks.remove(itemUuid);
+        if (chunk != null) {
+            removeFromChunkBucket(chunk, itemUuid);
+        }
+    }
+
+    private StableOrderingMap<OwnershipStatus, Integer> removeFromChunkBucket(ChunkKey chunk, UUID itemUuid) {
+        var bucket = itemEntities.get(chunk);
+        if (bucket == null) {
+            return null;
+        }
+        var removed = bucket.remove(itemUuid);
+        itemEntities.computeIfPresent(chunk, (k, b) -> b.isEmpty() ? null : b);
+        return removed;
     }
 
     public void setPlayerDroppedItemOwner(UUID playerId, ItemStack items, StableOrderingMap<OwnershipStatus, Integer> status) {
         var droppedItems = playerDroppedItems.computeIfAbsent(playerId, k -> new HashMap<>());
 
-        ItemStack singleItem = items.asOne();
+        ItemStack singleItem = ItemKeys.of(items);
 
         status.setOrderComparator((a, b) -> 0);
         droppedItems.merge(singleItem, status, (existing, incoming) -> {
@@ -107,7 +249,7 @@ public class OwnershipTable {
     public int InstantiatePlayerDroppedItems(UUID playerId, Item itemEntity) {
         ItemStack itemStack = itemEntity.getItemStack();
         int amountNeeded = itemStack.getAmount();
-        ItemStack itemType = itemStack.asOne();
+        ItemStack itemType = ItemKeys.of(itemStack);
 
         if (amountNeeded <= 0) {
             return 0;
@@ -157,7 +299,7 @@ public class OwnershipTable {
 
         // If any ownership was assigned, link it to the new item entity.
         if (!newItemOwnership.isEmpty()) {
-            itemEntities.put(itemEntity.getUniqueId(), newItemOwnership);
+            setItemEntityOwner(itemEntity, newItemOwnership);
         }
 
         // Clean up the parent map if the ownership map for this item is now empty.
@@ -168,10 +310,111 @@ public class OwnershipTable {
         return totalAmountTaken;
     }
 
+    /**
+     * Record what a player inventory slot now holds. Called for every slot change
+     * so death drops can go straight to the slots that hold an item.
+     */
+    public void updateSlot(Player player, int slot, ItemStack stack) {
+        slotIndexes
+            .computeIfAbsent(player.getUniqueId(), k -> new SlotIndex(player.getInventory().getSize()))
+            .set(slot, stack == null || stack.isEmpty() ? null : ItemKeys.of(stack));
+    }
+
+    public void forgetSlotIndex(UUID playerId) {
+        slotIndexes.remove(playerId);
+    }
+
+    public int getInventoryCount() {
+        return table.size();
+    }
+
+    public int getItemEntityCount() {
+        return itemEntityChunks.size() + detachedItemEntities.size();
+    }
+
     public Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> getinventory(InventoryId inventoryId) {
         return table.get(inventoryId);
     }
 
+    /**
+     * The last published snapshot of an inventory's records. Safe from any
+     * thread; lags the live records by at most a tick.
+     */
+    public OwnershipSnapshot getSnapshot(InventoryId inventoryId) {
+        return snapshots.getOrDefault(inventoryId, OwnershipSnapshot.EMPTY);
+    }
+
+    /**
+     * Every published snapshot, by inventory. A live read-only view.
+     */
+    public Map<InventoryId, OwnershipSnapshot> getSnapshots() {
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * Called with each newly published snapshot, on the thread owning the
+     * inventory. Listeners must not block.
+     */
+    public void addSnapshotListener(BiConsumer<InventoryId, OwnershipSnapshot> listener) {
+        snapshotListeners.add(listener);
+    }
+
+    /**
+     * Publish every pending snapshot now. Call from the thread that owns the
+     * records, e.g. when the server is shutting down and no task will run.
+     */
+    public void publishAll() {
+        for (InventoryId inventoryId : dirtyInventories) {
+            publish(inventoryId);
+        }
+    }
+
+    /**
+     * Live records of an inventory for a caller about to change them.
+     */
+    // Package-private for the benchmarks in server-jmh
+    Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> recordsOf(InventoryId inventoryId) {
+        markModified(inventoryId);
+        return table.computeIfAbsent(inventoryId, k -> new HashMap<>());
+    }
+
+    /**
+     * Like recordsOf, but doesn't create records for an untracked inventory.
+     */
+    private Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> existingRecordsOf(InventoryId inventoryId) {
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = table.get(inventoryId);
+        if (byItemStack != null) {
+            markModified(inventoryId);
+        }
+        return byItemStack;
+    }
+
+    /**
+     * Queue a snapshot of the inventory, taken on its owning thread once the
+     * current batch of changes is done.
+     */
+    private void markModified(InventoryId inventoryId) {
+        if (dirtyInventories.add(inventoryId)) {
+            platform.runOnOwner(inventoryId, () -> publish(inventoryId));
+        }
+    }
+
+    private void publish(InventoryId inventoryId) {
+        if (!dirtyInventories.remove(inventoryId)) {
+            return;
+        }
+        // Kept even when empty so versions never repeat for an inventory
+        OwnershipSnapshot snapshot = OwnershipSnapshot.of(
+                table.get(inventoryId),
+                getSnapshot(inventoryId),
+                platform.nanoTime()
+        );
+        snapshots.put(inventoryId, snapshot);
+        for (BiConsumer<InventoryId, OwnershipSnapshot> listener : snapshotListeners) {
+            listener.accept(inventoryId, snapshot);
+        }
+    }
+
     public void trackPlayerInventory(Player player) {
         Inventory inventory = player.getInventory();
         Inventory enderChestInventory = player.getEnderChest();
@@ -195,30 +438,44 @@ public class OwnershipTable {
         }
 
         InventoryId inventoryId = InventoryId.from(inventory);
+        trackInventory(inventory, dropOrderOf(inventoryId), defaultStatusOf(inventoryId));
+    }
 
-        final Comparator<OwnershipStatus> comparator;
-        final Supplier<OwnershipStatus> defaultStatusSupplier;
+    private static Comparator<OwnershipStatus> dropOrderOf(InventoryId inventoryId) {
+        if (inventoryId instanceof InventoryId.PlayerInventoryId playerInvId) {
+            // For player inventories, use player drop order
+            return OwnershipStatus.playerDropOrder(playerInvId.getUuid());
+        }
+        // Non-player inventories use shared drop order
+        return OwnershipStatus.sharedDropOrder();
+    }
 
+    /**
+     * Status of items found in an inventory without records for them.
+     */
+    private static Supplier<OwnershipStatus> defaultStatusOf(InventoryId inventoryId) {
         if (inventoryId instanceof InventoryId.PlayerInventoryId playerInvId) {
             UUID playerId = playerInvId.getUuid();
             InventoryType type = playerInvId.getInventoryType();
 
-            // For player inventories, use player drop order
-            comparator = OwnershipStatus.playerDropOrder(playerId);
-
             // Default ownership: timered for main inventory + ender chest, empty otherwise
             if (type == InventoryType.PLAYER || type == InventoryType.ENDER_CHEST) {
-                defaultStatusSupplier = () -> OwnershipStatus.timered(playerId);
-            } else {
-                defaultStatusSupplier = OwnershipStatus::empty;
+                return () -> OwnershipStatus.timered(playerId);
             }
-        } else {
-            // Non-player inventories use shared drop order + empty ownership
-            comparator = OwnershipStatus.sharedDropOrder();
-            defaultStatusSupplier = OwnershipStatus::empty;
         }
+        return OwnershipStatus::empty;
+    }
 
-        trackInventory(inventory, comparator, defaultStatusSupplier);
+    /**
+     * trackInventory, but only for an inventory with no records yet, such as
+     * a container clicked for the first time. Once tracked, the listeners and
+     * the consistency auditor keep it in line without rescanning.
+     */
+    public void trackInventoryIfUntracked(Inventory inventory) {
+        // A plain lookup: asking mustn't mark the inventory modified
+        if (inventory != null && !table.containsKey(InventoryId.from(inventory))) {
+            trackInventory(inventory);
+        }
     }
 
     public void trackInventory(
@@ -226,22 +483,47 @@ public class OwnershipTable {
         Comparator<OwnershipStatus> comparator,
         Supplier<OwnershipStatus> defaultStatusSupplier
     ) {
+        long started = System.nanoTime();
+        try {
+            trackInventoryUntimed(inventory, comparator, defaultStatusSupplier);
+        } finally {
+            trackInventoryTimer.recordSince(started);
+        }
+    }
+
+    private void trackInventoryUntimed(
+        Inventory inventory,
+        Comparator<OwnershipStatus> comparator,
+        Supplier<OwnershipStatus> defaultStatusSupplier
+    ) {
+        InventoryId inventoryId = InventoryId.from(inventory);
+
         // For this inventory: ItemStack -> (OwnershipStatus -> amount)
-        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> trackingRecords = table.computeIfAbsent(
-            InventoryId.from(inventory),
-            k -> new HashMap<>()
-        );
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> trackingRecords = recordsOf(inventoryId);
+
+        // We're visiting every slot anyway, so rebuild the main inventory's slot index
+        SlotIndex slotIndex = null;
+        if (inventoryId instanceof InventoryId.PlayerInventoryId playerInvId
+                && playerInvId.getInventoryType() == InventoryType.PLAYER) {
+            slotIndex = new SlotIndex(inventory.getSize());
+            slotIndexes.put(playerInvId.getPlayerId(), slotIndex);
+        }
 
         // Actual counts in the current inventory, by ItemStack.
         Map<ItemStack, Integer> actualAmount = new HashMap<>();
 
-        for (ItemStack stack : inventory.getContents()) {
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack stack = contents[slot];
             if (stack != null && !stack.isEmpty()) {
-                ItemStack key = stack.asOne();
+                ItemStack key = ItemKeys.of(stack);
                 actualAmount.put(
                     key,
                     actualAmount.getOrDefault(key, 0) + stack.getAmount()
                 );
+                if (slotIndex != null) {
+                    slotIndex.set(slot, key);
+                }
             }
         }
 
@@ -254,8 +536,23 @@ public class OwnershipTable {
             actualAmount.put(stack, actualAmount.getOrDefault(stack, 0) - trackedAmount);
         }
 
+        applyDifferences(inventory, trackingRecords, actualAmount, comparator, defaultStatusSupplier);
+    }
+
+    /**
+     * Bring records in line with the inventory, given the actual minus
+     * tracked amount of each key: extra items get the least significant
+     * status, missing ones are taken in drop order.
+     */
+    private void applyDifferences(
+        Inventory inventory,
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> trackingRecords,
+        Map<ItemStack, Integer> differences,
+        Comparator<OwnershipStatus> comparator,
+        Supplier<OwnershipStatus> defaultStatusSupplier
+    ) {
         // Apply differences to trackingRecords via addItems/removeItems.
-        for (Map.Entry<ItemStack, Integer> entry : actualAmount.entrySet()) {
+        for (Map.Entry<ItemStack, Integer> entry : differences.entrySet()) {
             ItemStack stack = entry.getKey();
             int difference = entry.getValue();
 
@@ -296,14 +593,224 @@ public class OwnershipTable {
         }
     }
 
+    /**
+     * A WorkScheduler job that checks loaded inventories against their
+     * records, round-robin over the table, and repairs drift left by paths
+     * no listener models. Run it on the global region. Inventories this
+     * thread owns are checked within the scheduler's budget; the rest are
+     * queued on their owners, a bounded number at a time.
+     *
+     * Drift is only repaired once a second look, a second or more later,
+     * finds the same difference: a click is synced a tick after the event,
+     * and a check landing in between must not take that for drift. Only the
+     * keys that were off are repaired. Repairs are counted by kind of
+     * inventory and logged with where they were and what was off.
+     */
+    public WorkScheduler.Job consistencyAuditor(Logger logger) {
+        return new ConsistencyAuditor(logger);
+    }
+
+    private final class ConsistencyAuditor implements WorkScheduler.Job {
+        // Checks waiting on other threads at once
+        private static final int MAX_QUEUED = 64;
+        private static final List<String> KINDS = List.of("player", "ender_chest", "entity", "block");
+
+        private record Suspicion(Map<ItemStack, Integer> drift, long seenAtNanos) {
+        }
+
+        private final Logger logger;
+        private final Metrics.Counter checks = Metrics.counter(
+            "fki_audit_checks_total",
+            "Inventories the consistency auditor compared with their records"
+        );
+        private final Map<String, Metrics.Counter> repairs = new HashMap<>();
+        private final Map<String, Metrics.Counter> driftItems = new HashMap<>();
+        // Weakly consistent, so it survives changes to the table between steps
+        private Iterator<InventoryId> cursor;
+        // Picked by the last step but not queued, as too many were waiting
+        private InventoryId deferred;
+        private final AtomicInteger queued = new AtomicInteger();
+        // Differences seen once, and the inventories due a second look, oldest first
+        private final Map<InventoryId, Suspicion> suspected = new ConcurrentHashMap<>();
+        private final Queue<InventoryId> rechecks = new ConcurrentLinkedQueue<>();
+
+        ConsistencyAuditor(Logger logger) {
+            this.logger = logger;
+            for (String kind : KINDS) {
+                repairs.put(kind, Metrics.counter(
+                    "fki_audit_repairs_total", "Inventories whose records the auditor repaired", "kind", kind
+                ));
+                driftItems.put(kind, Metrics.counter(
+                    "fki_audit_drift_items_total", "Items the auditor found tracked wrongly", "kind", kind
+                ));
+            }
+        }
+
+        @Override
+        public boolean step() {
+            InventoryId invId = next();
+            if (invId == null) {
+                return false;
+            }
+            if (!isLoaded(invId)) {
+                suspected.remove(invId);
+                return true;
+            }
+
+            if (platform.isOwnedByCurrentThread(invId)) {
+                check(invId);
+                return true;
+            }
+            if (queued.get() >= MAX_QUEUED) {
+                deferred = invId;
+                return false;
+            }
+            queued.incrementAndGet();
+            platform.runOnOwner(invId, () -> {
+                try {
+                    check(invId);
+                } finally {
+                    queued.decrementAndGet();
+                }
+            });
+            return true;
+        }
+
+        /**
+         * A second look that's due, the inventory left over from the last
+         * step, or the next one in the table. Null at the end of an empty
+         * table.
+         */
+        private InventoryId next() {
+            InventoryId due = rechecks.peek();
+            if (due != null) {
+                Suspicion suspicion = suspected.get(due);
+                if (suspicion == null || platform.nanoTime() - suspicion.seenAtNanos() >= SECOND_NANOS) {
+                    rechecks.poll();
+                    if (suspicion != null) {
+                        return due;
+                    }
+                }
+            }
+            if (deferred != null) {
+                InventoryId invId = deferred;
+                deferred = null;
+                return invId;
+            }
+            if (cursor == null || !cursor.hasNext()) {
+                cursor = table.keySet().iterator();
+                if (!cursor.hasNext()) {
+                    return null;
+                }
+            }
+            return cursor.next();
+        }
+
+        /**
+         * Whether the inventory can be read without loading anything.
+         */
+        private boolean isLoaded(InventoryId invId) {
+            if (invId instanceof InventoryId.PlayerInventoryId playerInvId) {
+                return platform.isOnline(playerInvId.getPlayerId());
+            } else if (invId instanceof InventoryId.BlockInventoryId blockInvId) {
+                return blockInvId.getLocation().isChunkLoaded();
+            }
+            // Entities are looked up on their owner; virtual inventories hold nothing
+            return invId instanceof InventoryId.EntityInventoryId;
+        }
+
+        private void check(InventoryId invId) {
+            // Things may have unloaded while the check was queued
+            Inventory inventory = isLoaded(invId) ? invId.getInventory() : null;
+            if (inventory == null) {
+                suspected.remove(invId);
+                return;
+            }
+            checks.increment();
+
+            Map<ItemStack, Integer> drift = driftOf(invId, inventory);
+            if (drift.isEmpty()) {
+                suspected.remove(invId);
+                return;
+            }
+            long now = platform.nanoTime();
+            Suspicion suspicion = suspected.get(invId);
+            if (suspicion == null || !suspicion.drift().equals(drift)) {
+                // First seen, or still changing; look again in a second
+                suspected.put(invId, new Suspicion(drift, now));
+                rechecks.add(invId);
+                return;
+            }
+            if (now - suspicion.seenAtNanos() < SECOND_NANOS) {
+                // A pass got here before the second look did
+                return;
+            }
+            suspected.remove(invId);
+
+            int items = 0;
+            for (int difference : drift.values()) {
+                items += Math.abs(difference);
+            }
+            String kind = kindOf(invId);
+            repairs.get(kind).increment();
+            driftItems.get(kind).add(items);
+            logger.info("Repaired " + items + " drifted items in " + invId + ": " + drift);
+
+            applyDifferences(inventory, recordsOf(invId), drift, dropOrderOf(invId), defaultStatusOf(invId));
+        }
+
+        /**
+         * Actual minus tracked amount of every key where they differ.
+         */
+        private Map<ItemStack, Integer> driftOf(InventoryId invId, Inventory inventory) {
+            Map<ItemStack, Integer> drift = new HashMap<>();
+            for (ItemStack stack : inventory.getContents()) {
+                if (stack != null && !stack.isEmpty()) {
+                    drift.merge(ItemKeys.of(stack), stack.getAmount(), Integer::sum);
+                }
+            }
+
+            // Read-only, so not existingRecordsOf: a check must not republish the snapshot
+            Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> records = table.get(invId);
+            if (records != null) {
+                for (Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> entry : records.entrySet()) {
+                    int tracked = 0;
+                    for (int amount : entry.getValue().values()) {
+                        tracked += amount;
+                    }
+                    drift.merge(entry.getKey(), -tracked, Integer::sum);
+                }
+            }
+
+            drift.values().removeIf(difference -> difference == 0);
+            return drift;
+        }
+
+        private String kindOf(InventoryId invId) {
+            if (invId instanceof InventoryId.PlayerInventoryId playerInvId) {
+                return playerInvId.getInventoryType() == InventoryType.ENDER_CHEST ? "ender_chest" : "player";
+            } else if (invId instanceof InventoryId.EntityInventoryId) {
+                return "entity";
+            }
+            return "block";
+        }
+    }
+
     public void syncItemUpdate(Inventory inventory, ItemStack original, ItemStack updated) {
-        var inventoryMap = table.get(InventoryId.from(inventory));
+        var inventoryMap = existingRecordsOf(InventoryId.from(inventory));
         if (inventoryMap == null) {
             return;
         }
-        ItemStack originalKey = original.asOne();
-        ItemStack updatedKey = updated.asOne();
+        ItemStack originalKey = ItemKeys.of(original);
+        ItemStack updatedKey = ItemKeys.of(updated);
+        if (originalKey.isSimilar(updatedKey)) {
+            // Only ignored components changed; the record stays where it is
+            return;
+        }
         var records = inventoryMap.get(originalKey);
+        if (records == null) {
+            return;
+        }
         inventoryMap.remove(originalKey);
         inventoryMap.put(updatedKey, records);
     }
@@ -327,16 +834,56 @@ public class OwnershipTable {
             Inventory inventory,
             ItemStack stack,
             StableOrderingMap<OwnershipStatus, Integer> amountByOwnership
+    ) {
+        long started = System.nanoTime();
+        try {
+            return syncItemGetUntimed(
+                    inventory != null ? InventoryId.from(inventory) : null, inventory, stack, amountByOwnership
+            );
+        } finally {
+            syncItemGetTimer.recordSince(started);
+        }
+    }
+
+    /**
+     * Same as the explicit-map case of syncItemGet(Inventory, ...), for
+     * callers that only have the inventory's id (WorkloadReplayer).
+     */
+    public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemGet(
+            InventoryId inventoryId,
+            ItemStack stack,
+            StableOrderingMap<OwnershipStatus, Integer> amountByOwnership
+    ) {
+        long started = System.nanoTime();
+        try {
+            // Inferring needs the contents; without them there's nothing to add
+            if (amountByOwnership == null) {
+                return new StableOrderingMap<>((a, b) -> 0, ItemKeys::similar);
+            }
+            return syncItemGetUntimed(inventoryId, null, stack, amountByOwnership);
+        } finally {
+            syncItemGetTimer.recordSince(started);
+        }
+    }
+
+    /**
+     * {@code inventory} is only read to infer amounts, so it may be null when
+     * {@code amountByOwnership} is given.
+     */
+    private StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemGetUntimed(
+            InventoryId inventoryId,
+            Inventory inventory,
+            ItemStack stack,
+            StableOrderingMap<OwnershipStatus, Integer> amountByOwnership
     ) {
         StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> addedItems =
-                new StableOrderingMap<>((a, b) -> 0, ItemStack::isSimilar);
+                new StableOrderingMap<>((a, b) -> 0, ItemKeys::similar);
 
-        if (inventory == null || stack == null || stack.isEmpty()) {
+        if (inventoryId == null || stack == null || stack.isEmpty()) {
             return addedItems;
         }
 
-        InventoryId inventoryId = InventoryId.from(inventory);
-        ItemStack key = stack.asOne();
+        ItemStack key = ItemKeys.of(stack);
 
         // Decide comparator + default ownership based on inventory type
         final Comparator<OwnershipStatus> takeOrder;
@@ -363,7 +910,7 @@ public class OwnershipTable {
 
         // Get or create the per-item tracking map
         Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack =
-                table.computeIfAbsent(inventoryId, k -> new HashMap<>());
+                recordsOf(inventoryId);
 
         StableOrderingMap<OwnershipStatus, Integer> records = byItemStack.get(key);
         if (records == null) {
@@ -390,7 +937,7 @@ public class OwnershipTable {
                 }
 
                 // Apply directly using the low-level helper
-                syncItemGet(inventory, key, status, amt, takeOrder);
+                syncItemGetUntimed(inventoryId, key, status, amt, takeOrder);
 
                 // Track what was added for the return value
                 addedOwnership.merge(status, amt, Integer::sum);
@@ -414,7 +961,7 @@ public class OwnershipTable {
         // Compute actual amount in the inventory for this item
         int actualTotal = 0;
         for (ItemStack s : inventory.getContents()) {
-            if (s != null && !s.isEmpty() && s.isSimilar(key)) {
+            if (ItemKeys.matches(s, key)) {
                 actualTotal += s.getAmount();
             }
         }
@@ -440,7 +987,7 @@ public class OwnershipTable {
         }
 
         // Apply to tracking table using the low-level helper
-        syncItemGet(inventory, key, targetStatus, amount, takeOrder);
+        syncItemGetUntimed(inventoryId, key, targetStatus, amount, takeOrder);
 
         // Build return map for what was added
         StableOrderingMap<OwnershipStatus, Integer> addedOwnership =
@@ -455,16 +1002,29 @@ public class OwnershipTable {
             Inventory inventory,
             ItemStack stack,
             OwnershipStatus ownership
+    ) {
+        long started = System.nanoTime();
+        try {
+            return syncItemGetUntimed(inventory, stack, ownership);
+        } finally {
+            syncItemGetTimer.recordSince(started);
+        }
+    }
+
+    private StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemGetUntimed(
+            Inventory inventory,
+            ItemStack stack,
+            OwnershipStatus ownership
     ) {
         StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> addedItems =
-                new StableOrderingMap<>((a, b) -> 0, ItemStack::isSimilar);
+                new StableOrderingMap<>((a, b) -> 0, ItemKeys::similar);
 
         if (inventory == null || stack == null || stack.isEmpty()) {
             return addedItems;
         }
 
         InventoryId inventoryId = InventoryId.from(inventory);
-        ItemStack key = stack.asOne();
+        ItemStack key = ItemKeys.of(stack);
 
         // Decide comparator based on inventory type (same pattern as other overloads)
         final Comparator<OwnershipStatus> takeOrder;
@@ -479,7 +1039,7 @@ public class OwnershipTable {
 
         // Get or create the per-item tracking map
         Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack =
-                table.computeIfAbsent(inventoryId, k -> new HashMap<>());
+                recordsOf(inventoryId);
 
         StableOrderingMap<OwnershipStatus, Integer> records = byItemStack.get(key);
         if (records == null) {
@@ -498,7 +1058,7 @@ public class OwnershipTable {
         // Compute actual amount in the inventory for this item
         int actualTotal = 0;
         for (ItemStack s : inventory.getContents()) {
-            if (s != null && !s.isEmpty() && s.isSimilar(key)) {
+            if (ItemKeys.matches(s, key)) {
                 actualTotal += s.getAmount();
             }
         }
@@ -513,7 +1073,7 @@ public class OwnershipTable {
         // Bukkit.getLogger().info("syncItemGet ownership: " + ownership);
         // Do NOT touch any existing ownership buckets (including empty/new) other than
         // merging into the explicitly provided `ownership` bucket.
-        syncItemGet(inventory, key, ownership, amount, takeOrder);
+        syncItemGetUntimed(inventoryId, key, ownership, amount, takeOrder);
 
         // Build return map for what was added
         StableOrderingMap<OwnershipStatus, Integer> addedOwnership =
@@ -532,20 +1092,56 @@ public class OwnershipTable {
         return syncItemGet(inventory, stack, Optional.of(amount));
     }
 
+    /**
+     * syncItemGet(Inventory, ItemStack, int) for callers that only have the
+     * inventory's id (WorkloadReplayer).
+     */
+    public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemGet(
+            InventoryId inventoryId,
+            ItemStack stack,
+            int amount
+    ) {
+        long started = System.nanoTime();
+        try {
+            return syncItemGetUntimed(inventoryId, null, stack, Optional.of(amount));
+        } finally {
+            syncItemGetTimer.recordSince(started);
+        }
+    }
+
     public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemGet(
             Inventory inventory,
             ItemStack stack,
             Optional<Integer> amountOpt
+    ) {
+        long started = System.nanoTime();
+        try {
+            return syncItemGetUntimed(
+                    inventory != null ? InventoryId.from(inventory) : null, inventory, stack, amountOpt
+            );
+        } finally {
+            syncItemGetTimer.recordSince(started);
+        }
+    }
+
+    /**
+     * {@code inventory} is only read to infer the amount, so it may be null
+     * when {@code amountOpt} holds one.
+     */
+    private StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemGetUntimed(
+            InventoryId inventoryId,
+            Inventory inventory,
+            ItemStack stack,
+            Optional<Integer> amountOpt
     ) {
         StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> addedItems =
-                new StableOrderingMap<>((a, b) -> 0, ItemStack::isSimilar);
+                new StableOrderingMap<>((a, b) -> 0, ItemKeys::similar);
 
-        if (inventory == null || stack == null || stack.isEmpty()) {
+        if (inventoryId == null || stack == null || stack.isEmpty()) {
             return addedItems;
         }
 
-        InventoryId inventoryId = InventoryId.from(inventory);
-        ItemStack key = stack.asOne();
+        ItemStack key = ItemKeys.of(stack);
 
         // Decide comparator + default ownership based on inventory type
         final Comparator<OwnershipStatus> takeOrder;
@@ -572,7 +1168,7 @@ public class OwnershipTable {
 
         // Get or create the per-item tracking map
         Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack =
-                table.computeIfAbsent(inventoryId, k -> new HashMap<>());
+                recordsOf(inventoryId);
 
         StableOrderingMap<OwnershipStatus, Integer> records = byItemStack.get(key);
         if (records == null) {
@@ -588,14 +1184,6 @@ public class OwnershipTable {
             trackedTotal += v;
         }
 
-        // Compute actual amount in the inventory for this item
-        int actualTotal = 0;
-        for (ItemStack s : inventory.getContents()) {
-            if (s != null && !s.isEmpty() && s.isSimilar(key)) {
-                actualTotal += s.getAmount();
-            }
-        }
-
         // Decide how many items were gained
         final int amount;
         if (amountOpt != null && amountOpt.isPresent()) {
@@ -606,6 +1194,14 @@ public class OwnershipTable {
             // For "get", no risk of going negative; use requested amount directly
             amount = requested;
         } else {
+            // Compute actual amount in the inventory for this item
+            int actualTotal = 0;
+            for (ItemStack s : inventory.getContents()) {
+                if (ItemKeys.matches(s, key)) {
+                    actualTotal += s.getAmount();
+                }
+            }
+
             // Infer gain from actual - tracked
             int inferred = Math.max(0, actualTotal - trackedTotal);
             if (inferred <= 0) {
@@ -633,7 +1229,7 @@ public class OwnershipTable {
         }
 
         // Apply to tracking table using the low-level helper
-        syncItemGet(inventory, key, targetStatus, amount, takeOrder);
+        syncItemGetUntimed(inventoryId, key, targetStatus, amount, takeOrder);
 
         // Build return map for what was added
         StableOrderingMap<OwnershipStatus, Integer> addedOwnership =
@@ -650,16 +1246,30 @@ public class OwnershipTable {
             OwnershipStatus ownership,
             int amount,
             Comparator<OwnershipStatus> comparator
+    ) {
+        long started = System.nanoTime();
+        try {
+            syncItemGetUntimed(InventoryId.from(inventory), stack, ownership, amount, comparator);
+        } finally {
+            syncItemGetTimer.recordSince(started);
+        }
+    }
+
+    private void syncItemGetUntimed(
+            InventoryId inventoryId,
+            ItemStack stack,
+            OwnershipStatus ownership,
+            int amount,
+            Comparator<OwnershipStatus> comparator
     ) {
         if (amount <= 0) {
             return;
         }
 
-        InventoryId inventoryId = InventoryId.from(inventory);
-        ItemStack key = stack.asOne();
+        ItemStack key = ItemKeys.of(stack);
 
         Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack =
-                table.computeIfAbsent(inventoryId, k -> new HashMap<>());
+                recordsOf(inventoryId);
 
         StableOrderingMap<OwnershipStatus, Integer> records =
                 byItemStack.computeIfAbsent(key,
@@ -672,29 +1282,247 @@ public class OwnershipTable {
         records.merge(ownership, amount, Integer::sum);
     }
 
-    public Map<ItemStack, Integer> removeItems(Player player, Predicate<OwnershipStatus> pred) {
-        Map<ItemStack, Integer> removedItems = new HashMap<>();
+    /**
+     * Move ownership of {@code amount} items between two inventories by
+     * splitting buckets, without looking at either inventory's contents.
+     *
+     * Meant for container-to-container transfers (hoppers, droppers, hopper
+     * minecarts) where the event already tells us exactly what moved, so the
+     * shared drop/take orders apply on both sides. Any part of the amount the
+     * source wasn't tracking arrives as OwnershipStatus.empty().
+     */
+    public void moveItems(InventoryId sourceId, InventoryId destinationId, ItemStack stack, int amount) {
+        if (amount <= 0 || sourceId.equals(destinationId)) {
+            return;
+        }
 
-        Inventory inventory = player.getInventory();
-        InventoryId inventoryId = InventoryId.from(inventory);
+        StableOrderingMap<OwnershipStatus, Integer> moved =
+                takeItems(sourceId, stack, amount, OwnershipStatus.sharedDropOrder());
 
-        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> tracked = table.get(inventoryId);
-        if (tracked == null) {
-            return removedItems;
+        int untracked = amount - sumAmounts(moved);
+        if (untracked > 0) {
+            moved.merge(OwnershipStatus.empty(), untracked, Integer::sum);
         }
 
-        // Iterate over each tracked ItemStack
-        var itemIt = tracked.entrySet().iterator();
-        while (itemIt.hasNext()) {
-            Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> itemEntry = itemIt.next();
-            ItemStack stackKey = itemEntry.getKey(); // amount = 1 template
-            StableOrderingMap<OwnershipStatus, Integer> records = itemEntry.getValue();
+        putItems(destinationId, stack, moved, OwnershipStatus.sharedTakeOrder());
+    }
 
-            if (records == null || records.isEmpty()) {
-                continue;
+    /**
+     * Remove up to {@code amount} tracked items of this type from an inventory,
+     * consuming buckets in {@code dropOrder}, and return what was removed.
+     * Does not look at the inventory's actual contents.
+     */
+    public StableOrderingMap<OwnershipStatus, Integer> takeItems(
+            InventoryId inventoryId,
+            ItemStack stack,
+            int amount,
+            Comparator<OwnershipStatus> dropOrder
+    ) {
+        ItemStack key = ItemKeys.of(stack);
+
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = existingRecordsOf(inventoryId);
+        StableOrderingMap<OwnershipStatus, Integer> records =
+                byItemStack != null ? byItemStack.get(key) : null;
+        if (records == null || records.isEmpty()) {
+            return new StableOrderingMap<>(dropOrder, OwnershipStatus::equals);
+        }
+
+        StableOrderingMap<OwnershipStatus, Integer> taken = splitOwnership(records, amount, dropOrder);
+
+        // Cleanup empty structures
+        if (records.isEmpty()) {
+            byItemStack.remove(key);
+            if (byItemStack.isEmpty()) {
+                table.remove(inventoryId);
+            }
+        }
+
+        return taken;
+    }
+
+    /**
+     * Add the given OwnershipStatus -> amount buckets to an inventory as-is.
+     * Does not look at the inventory's actual contents.
+     */
+    public void putItems(
+            InventoryId inventoryId,
+            ItemStack stack,
+            StableOrderingMap<OwnershipStatus, Integer> amountByOwnership,
+            Comparator<OwnershipStatus> takeOrder
+    ) {
+        if (amountByOwnership == null || amountByOwnership.isEmpty()) {
+            return;
+        }
+
+        StableOrderingMap<OwnershipStatus, Integer> records = recordsOf(inventoryId)
+                .computeIfAbsent(ItemKeys.of(stack), k -> new StableOrderingMap<>(takeOrder, OwnershipStatus::equals));
+        records.setOrderComparator(takeOrder);
+
+        for (Map.Entry<OwnershipStatus, Integer> entry : amountByOwnership.entrySet()) {
+            if (entry.getValue() > 0) {
+                records.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Split {@code amount} items off the front of {@code source} (after
+     * re-sorting it by {@code order}) and return them as a new map. Buckets that
+     * are fully consumed are removed from {@code source}.
+     */
+    public static StableOrderingMap<OwnershipStatus, Integer> splitOwnership(
+            StableOrderingMap<OwnershipStatus, Integer> source,
+            int amount,
+            Comparator<OwnershipStatus> order
+    ) {
+        StableOrderingMap<OwnershipStatus, Integer> split =
+                new StableOrderingMap<>(order, OwnershipStatus::equals);
+        if (amount <= 0 || source.isEmpty()) {
+            return split;
+        }
+
+        source.setOrderComparator(order);
+        int remaining = amount;
+
+        var it = source.entrySet().iterator();
+        while (remaining > 0 && it.hasNext()) {
+            Map.Entry<OwnershipStatus, Integer> entry = it.next();
+            int available = entry.getValue();
+
+            if (available <= remaining) {
+                split.merge(entry.getKey(), available, Integer::sum);
+                it.remove();
+                remaining -= available;
+            } else {
+                split.merge(entry.getKey(), remaining, Integer::sum);
+                entry.setValue(available - remaining);
+                remaining = 0;
             }
+        }
+
+        return split;
+    }
 
-            int removedForStack = 0;
+    /**
+     * The ownership items keep once they're on the ground: their owner stays,
+     * but nobody's timer keeps running on them.
+     */
+    public static StableOrderingMap<OwnershipStatus, Integer> withoutTimers(
+            StableOrderingMap<OwnershipStatus, Integer> amount
+    ) {
+        StableOrderingMap<OwnershipStatus, Integer> amountWithoutTimers = new StableOrderingMap<>(
+            amount.getOrderComparator(),
+            OwnershipStatus::equals
+        );
+
+        for (var entry : amount.entrySet()) {
+            OwnershipStatus originalStatus = entry.getKey();
+
+            OwnershipStatus transformedStatus;
+            if (originalStatus.isOwned()) {
+                transformedStatus = OwnershipStatus.owned(originalStatus.getOwnerUuid().get());
+            } else if (originalStatus.isTimered()) {
+                transformedStatus = OwnershipStatus.empty();
+            } else {
+                transformedStatus = originalStatus;
+            }
+
+            amountWithoutTimers.merge(transformedStatus, entry.getValue(), Integer::sum);
+        }
+
+        return amountWithoutTimers;
+    }
+
+    private static int sumAmounts(Map<OwnershipStatus, Integer> records) {
+        int sum = 0;
+        for (Integer v : records.values()) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    /**
+     * Remove every tracked bucket matching {@code pred} from the player's main
+     * inventory, take the matching items out of their slots, and return them
+     * packed into as few full-size stacks as possible, each carrying its share
+     * of the removed ownership (split in the player's drop order).
+     *
+     * Slots are found through the player's SlotIndex; the full inventory is
+     * only scanned if the index turns out to be missing or stale.
+     */
+    public List<RemovedStack> removeItems(Player player, Predicate<OwnershipStatus> pred) {
+        List<RemovedStack> removedStacks = new ArrayList<>();
+
+        Inventory inventory = player.getInventory();
+        SlotIndex slotIndex = slotIndexes.get(player.getUniqueId());
+        Comparator<OwnershipStatus> dropOrder = OwnershipStatus.playerDropOrder(player.getUniqueId());
+
+        var removed = removeRecords(InventoryId.from(inventory), pred);
+        for (Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> itemEntry : removed.entrySet()) {
+            ItemStack stackKey = itemEntry.getKey(); // amount = 1 template
+            StableOrderingMap<OwnershipStatus, Integer> removedOwnership = itemEntry.getValue();
+
+            // Physically remove items from the player's inventory
+            List<ItemStack> pieces = new ArrayList<>();
+            int remaining = sumAmounts(removedOwnership);
+
+            if (slotIndex != null) {
+                remaining = takeFromSlots(inventory, slotIndex.slotsOf(stackKey), stackKey, remaining, pieces, slotIndex);
+            }
+            if (remaining > 0) {
+                int[] allSlots = new int[inventory.getSize()];
+                for (int slot = 0; slot < allSlots.length; slot++) {
+                    allSlots[slot] = slot;
+                }
+                takeFromSlots(inventory, allSlots, stackKey, remaining, pieces, slotIndex);
+            }
+
+            // Hand out ownership stack by stack; anything not backed by a
+            // physical item is dropped along with the records
+            for (ItemStack packed : packStacks(pieces)) {
+                removedStacks.add(new RemovedStack(
+                    packed,
+                    splitOwnership(removedOwnership, packed.getAmount(), dropOrder)
+                ));
+            }
+        }
+
+        return removedStacks;
+    }
+
+    /**
+     * The record half of removeItems: remove every bucket matching
+     * {@code pred} from a player inventory's records and return them by key,
+     * in the player's drop order. Leaves the inventory's contents alone.
+     */
+    public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> removeRecords(
+            InventoryId inventoryId,
+            Predicate<OwnershipStatus> pred
+    ) {
+        StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> removed =
+                new StableOrderingMap<>((a, b) -> 0, ItemKeys::similar);
+
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> tracked = existingRecordsOf(inventoryId);
+        if (tracked == null) {
+            return removed;
+        }
+
+        Comparator<OwnershipStatus> dropOrder = inventoryId instanceof InventoryId.PlayerInventoryId playerInvId
+                ? OwnershipStatus.playerDropOrder(playerInvId.getPlayerId())
+                : OwnershipStatus.sharedDropOrder();
+
+        // Iterate over each tracked ItemStack
+        var itemIt = tracked.entrySet().iterator();
+        while (itemIt.hasNext()) {
+            Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> itemEntry = itemIt.next();
+            StableOrderingMap<OwnershipStatus, Integer> records = itemEntry.getValue();
+
+            if (records == null || records.isEmpty()) {
+                continue;
+            }
+
+            StableOrderingMap<OwnershipStatus, Integer> removedOwnership =
+                    new StableOrderingMap<>(dropOrder, OwnershipStatus::equals);
 
             // Remove all ownership buckets that match the predicate
             var recIt = records.entrySet().iterator();
@@ -703,41 +1531,13 @@ public class OwnershipTable {
                 OwnershipStatus status = recEntry.getKey();
 
                 if (pred.test(status)) {
-                    int amount = recEntry.getValue();
-                    removedForStack += amount;
+                    removedOwnership.merge(status, recEntry.getValue(), Integer::sum);
                     recIt.remove();
                 }
             }
 
-            if (removedForStack > 0) {
-                // Physically remove items from the player's inventory
-                int remaining = removedForStack;
-
-                for (int slot = 0; slot < inventory.getSize() && remaining > 0; slot++) {
-                    ItemStack slotStack = inventory.getItem(slot);
-                    if (slotStack == null || slotStack.isEmpty()) {
-                        continue;
-                    }
-
-                    // Match by similarity (type + meta, ignoring amount)
-                    if (!slotStack.isSimilar(stackKey)) {
-                        continue;
-                    }
-
-                    int available = slotStack.getAmount();
-                    if (available <= remaining) {
-                        // Consume the entire stack in this slot
-                        inventory.clear(slot);
-                        remaining -= available;
-                    } else {
-                        // Partially consume this stack
-                        slotStack.setAmount(available - remaining);
-                        remaining = 0;
-                    }
-                }
-
-                // Track how many of this template stack were removed logically
-                removedItems.merge(stackKey, removedForStack, Integer::sum);
+            if (!removedOwnership.isEmpty()) {
+                removed.put(itemEntry.getKey(), removedOwnership);
             }
 
             // If no ownership records left for this ItemStack, remove it from the inventory map
@@ -751,7 +1551,89 @@ public class OwnershipTable {
             table.remove(inventoryId);
         }
 
-        return removedItems;
+        return removed;
+    }
+
+    /**
+     * Take up to {@code amount} items matching {@code key} out of the given
+     * slots, appending what was taken to {@code pieces}. Returns how many are
+     * still missing.
+     */
+    private static int takeFromSlots(
+            Inventory inventory,
+            int[] slots,
+            ItemStack key,
+            int amount,
+            List<ItemStack> pieces,
+            SlotIndex slotIndex
+    ) {
+        int remaining = amount;
+
+        for (int slot : slots) {
+            if (remaining <= 0) {
+                break;
+            }
+
+            ItemStack slotStack = inventory.getItem(slot);
+            if (!ItemKeys.matches(slotStack, key)) {
+                if (slotIndex != null && slotIndex.get(slot) != null) {
+                    // Stale entry; fix it up while we're here
+                    slotIndex.set(slot, slotStack == null || slotStack.isEmpty() ? null : ItemKeys.of(slotStack));
+                }
+                continue;
+            }
+
+            int available = slotStack.getAmount();
+            if (available <= remaining) {
+                // Consume the entire stack in this slot
+                pieces.add(slotStack.clone());
+                inventory.clear(slot);
+                if (slotIndex != null) {
+                    slotIndex.set(slot, null);
+                }
+                remaining -= available;
+            } else {
+                // Partially consume this stack
+                pieces.add(slotStack.asQuantity(remaining));
+                slotStack.setAmount(available - remaining);
+                remaining = 0;
+            }
+        }
+
+        return remaining;
+    }
+
+    /**
+     * Merge identical pieces into as few stacks as their max stack size allows.
+     */
+    private static List<ItemStack> packStacks(List<ItemStack> pieces) {
+        List<ItemStack> packed = new ArrayList<>();
+
+        for (ItemStack piece : pieces) {
+            int amount = piece.getAmount();
+
+            for (ItemStack open : packed) {
+                if (amount <= 0) {
+                    break;
+                }
+                if (!open.isSimilar(piece)) {
+                    continue;
+                }
+                int add = Math.min(open.getMaxStackSize() - open.getAmount(), amount);
+                if (add > 0) {
+                    open.setAmount(open.getAmount() + add);
+                    amount -= add;
+                }
+            }
+
+            while (amount > 0) {
+                int size = Math.min(piece.getMaxStackSize(), amount);
+                packed.add(piece.asQuantity(size));
+                amount -= size;
+            }
+        }
+
+        return packed;
     }
 
     public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemLost(
@@ -769,22 +1651,58 @@ public class OwnershipTable {
         return syncItemLost(inventory, stack, Optional.of(amount));
     }
 
+    /**
+     * syncItemLost(Inventory, ItemStack, int) for callers that only have the
+     * inventory's id (WorkloadReplayer).
+     */
     public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemLost(
+            InventoryId inventoryId,
+            ItemStack stack,
+            int amount
+    ) {
+        long started = System.nanoTime();
+        try {
+            return syncItemLostUntimed(inventoryId, null, stack, Optional.of(amount));
+        } finally {
+            syncItemLostTimer.recordSince(started);
+        }
+    }
+
+    public StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemLost(
+            Inventory inventory,
+            ItemStack stack,
+            Optional<Integer> amountOpt
+    ) {
+        long started = System.nanoTime();
+        try {
+            return syncItemLostUntimed(
+                    inventory != null ? InventoryId.from(inventory) : null, inventory, stack, amountOpt
+            );
+        } finally {
+            syncItemLostTimer.recordSince(started);
+        }
+    }
+
+    /**
+     * {@code inventory} is only read to infer the amount, so it may be null
+     * when {@code amountOpt} holds one.
+     */
+    private StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> syncItemLostUntimed(
+            InventoryId inventoryId,
             Inventory inventory,
             ItemStack stack,
             Optional<Integer> amountOpt
     ) {
         StableOrderingMap<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> removedItems =
-                new StableOrderingMap<>((a, b) -> 0, ItemStack::isSimilar);
+                new StableOrderingMap<>((a, b) -> 0, ItemKeys::similar);
 
-        if (inventory == null || stack == null || stack.isEmpty()) {
+        if (inventoryId == null || stack == null || stack.isEmpty()) {
             return removedItems;
         }
 
-        InventoryId inventoryId = InventoryId.from(inventory);
-        ItemStack key = stack.asOne();
+        ItemStack key = ItemKeys.of(stack);
 
-        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = table.get(inventoryId);
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = existingRecordsOf(inventoryId);
         if (byItemStack == null) {
             return removedItems;
         }
@@ -811,14 +1729,6 @@ public class OwnershipTable {
             return removedItems;
         }
 
-        // Compute actual amount in the inventory for this item
-        int actualTotal = 0;
-        for (ItemStack s : inventory.getContents()) {
-            if (s != null && !s.isEmpty() && s.isSimilar(key)) {
-                actualTotal += s.getAmount();
-            }
-        }
-
         // Decide how many items were lost
         final int amount;
         if (amountOpt != null && amountOpt.isPresent()) {
@@ -828,6 +1738,14 @@ public class OwnershipTable {
             }
             amount = Math.min(requested, trackedTotal);
         } else {
+            // Compute actual amount in the inventory for this item
+            int actualTotal = 0;
+            for (ItemStack s : inventory.getContents()) {
+                if (ItemKeys.matches(s, key)) {
+                    actualTotal += s.getAmount();
+                }
+            }
+
             int inferred = Math.max(0, trackedTotal - actualTotal);
             if (inferred <= 0) {
                 return removedItems;
@@ -919,6 +1837,15 @@ public class OwnershipTable {
      * @param stack type of the items that were moved
      */
     public void syncItemTransfer(Inventory source, Inventory destination, ItemStack stack) {
+        long started = System.nanoTime();
+        try {
+            syncItemTransferUntimed(source, destination, stack);
+        } finally {
+            syncItemTransferTimer.recordSince(started);
+        }
+    }
+
+    private void syncItemTransferUntimed(Inventory source, Inventory destination, ItemStack stack) {
         if (source == null || destination == null || stack == null || stack.isEmpty()) {
             return;
         }
@@ -926,13 +1853,13 @@ public class OwnershipTable {
             return;
         }
 
-        ItemStack key = stack.asOne();
+        ItemStack key = ItemKeys.of(stack);
 
         InventoryId srcId = InventoryId.from(source);
         InventoryId dstId = InventoryId.from(destination);
 
-        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> srcTrackedMap = table.get(srcId);
-        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> dstTrackedMap = table.get(dstId);
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> srcTrackedMap = existingRecordsOf(srcId);
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> dstTrackedMap = existingRecordsOf(dstId);
 
         StableOrderingMap<OwnershipStatus, Integer> srcRecords =
                 srcTrackedMap != null ? srcTrackedMap.get(key) : null;
@@ -1024,7 +1951,7 @@ public class OwnershipTable {
         java.util.function.BiFunction<Inventory, ItemStack, Integer> countActual = (inv, k) -> {
             int total = 0;
             for (ItemStack s : inv.getContents()) {
-                if (s != null && !s.isEmpty() && s.isSimilar(k)) {
+                if (ItemKeys.matches(s, k)) {
                     total += s.getAmount();
                 }
             }
@@ -1125,7 +2052,7 @@ public class OwnershipTable {
         // Ensure destination records exist when needed
         Supplier<StableOrderingMap<OwnershipStatus, Integer>> ensureDstRecords = () -> {
             Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItem =
-                    table.computeIfAbsent(dstId, k -> new HashMap<>());
+                    recordsOf(dstId);
             StableOrderingMap<OwnershipStatus, Integer> recs = byItem.get(key);
             if (recs == null) {
                 recs = new StableOrderingMap<>(dstTakeOrder, OwnershipStatus::equals);
@@ -1190,25 +2117,181 @@ public class OwnershipTable {
         // Any extra loss at source beyond matchedTransfer was already removed from srcRecords.
     }
 
-    public void tickPlayerInventory(int seconds) {
-        tickInventory(
-                seconds,
-                invId ->
-                        invId instanceof InventoryId.PlayerInventoryId playerInvId
-                                && ((InventoryId.PlayerInventoryId.Id) playerInvId.id).inventoryType == InventoryType.PLAYER
-                                && Optional.ofNullable(Bukkit.getPlayer(playerInvId.getPlayerId())).map(Player::isOnline).orElse(false),
-                this::reInitInPlayerInventory
-        );
+    /**
+     * Exact-amount counterpart of syncItemTransfer, for when the caller already
+     * knows how many items moved (e.g. a shift-click, where the moved amount is
+     * whatever left the clicked slot).
+     *
+     * Applies one bucket split on the source and one merge on the destination
+     * and never scans either inventory. Side selection, comparators and default
+     * ownership follow the same rules as syncItemTransfer; any part of the
+     * amount the source wasn't tracking gets the destination's default status.
+     *
+     * @param source source inventory that the items were moved from
+     * @param destination destination inventory that the items were moved to
+     * @param stack type of the items that were moved
+     * @param amount number of items that were moved
+     */
+    public void transferItems(Inventory source, Inventory destination, ItemStack stack, int amount) {
+        if (source == null || destination == null) {
+            return;
+        }
+        transferItems(InventoryId.from(source), InventoryId.from(destination), stack, amount);
+    }
+
+    /**
+     * transferItems(Inventory, Inventory, ...) by inventory id; it never
+     * looks at either inventory.
+     */
+    public void transferItems(InventoryId srcId, InventoryId dstId, ItemStack stack, int amount) {
+        long started = System.nanoTime();
+        try {
+            transferItemsUntimed(srcId, dstId, stack, amount);
+        } finally {
+            transferItemsTimer.recordSince(started);
+        }
     }
 
-    public void tickEnderChestInventory(int seconds) {
-        tickInventory(
+    private void transferItemsUntimed(InventoryId srcId, InventoryId dstId, ItemStack stack, int amount) {
+        if (stack == null || stack.isEmpty() || amount <= 0 || srcId.equals(dstId)) {
+            return;
+        }
+
+        final InventoryId.PlayerInventoryId srcPlayerId =
+                srcId instanceof InventoryId.PlayerInventoryId p ? p : null;
+        final InventoryId.PlayerInventoryId dstPlayerId =
+                dstId instanceof InventoryId.PlayerInventoryId p ? p : null;
+
+        // When both sides are player inventories, the main inventory is the
+        // player side; if that doesn't decide it, the source is.
+        final boolean treatDstAsPlayer = dstPlayerId != null
+                && (srcPlayerId == null
+                    || (dstPlayerId.getInventoryType() == InventoryType.PLAYER
+                        && srcPlayerId.getInventoryType() != InventoryType.PLAYER));
+        final boolean treatSrcAsPlayer = srcPlayerId != null && !treatDstAsPlayer;
+
+        final Comparator<OwnershipStatus> srcDropOrder = treatSrcAsPlayer
+                ? OwnershipStatus.playerDropOrder(srcPlayerId.getPlayerId())
+                : OwnershipStatus.sharedDropOrder();
+        final Comparator<OwnershipStatus> dstTakeOrder = treatDstAsPlayer
+                ? OwnershipStatus.playerTakeOrder(dstPlayerId.getPlayerId())
+                : OwnershipStatus.sharedTakeOrder();
+
+        StableOrderingMap<OwnershipStatus, Integer> moved = takeItems(srcId, stack, amount, srcDropOrder);
+
+        StableOrderingMap<OwnershipStatus, Integer> arriving =
+                new StableOrderingMap<>(dstTakeOrder, OwnershipStatus::equals);
+        for (Map.Entry<OwnershipStatus, Integer> part : moved.entrySet()) {
+            OwnershipStatus statusToAdd = part.getKey();
+
+            // Replace empty statuses with timered when moving to player inventory
+            if (treatDstAsPlayer && statusToAdd.isEmpty()) {
+                statusToAdd = OwnershipStatus.timered(dstPlayerId.getPlayerId());
+            }
+
+            arriving.merge(statusToAdd, part.getValue(), Integer::sum);
+        }
+
+        int untracked = amount - sumAmounts(moved);
+        if (untracked > 0) {
+            InventoryType dstType = treatDstAsPlayer ? dstPlayerId.getInventoryType() : null;
+            OwnershipStatus defaultStatus =
+                    dstType == InventoryType.PLAYER || dstType == InventoryType.ENDER_CHEST
+                            ? OwnershipStatus.timered(dstPlayerId.getPlayerId())
+                            : OwnershipStatus.empty();
+            arriving.merge(defaultStatus, untracked, Integer::sum);
+        }
+
+        putItems(dstId, stack, arriving, dstTakeOrder);
+    }
+
+    /**
+     * Tick one online player's inventories: the main inventory by
+     * {@code seconds} and the ender chest by {@code enderChestSeconds}.
+     * Only touches that player's records, so it runs on the player's region.
+     *
+     * {@code owner} runs tasks on that same region; with async ticking on,
+     * the computed result is applied through it.
+     */
+    public void tickPlayer(UUID playerId, int seconds, int enderChestSeconds, Executor owner) {
+        tickOn(
+                owner,
+                InventoryId.player(playerId, InventoryType.PLAYER),
                 seconds,
-                invId ->
-                        invId instanceof InventoryId.PlayerInventoryId playerInvId
-                                && ((InventoryId.PlayerInventoryId.Id) playerInvId.id).inventoryType == InventoryType.ENDER_CHEST,
                 this::reInitInPlayerInventory
         );
+        tickOn(
+                owner,
+                InventoryId.player(playerId, InventoryType.ENDER_CHEST),
+                enderChestSeconds,
+                this::reInitInPlayerInventory
+        );
+    }
+
+    /**
+     * How many timer seconds the inventory's timers lose per second right
+     * now; 0 for inventories that are not ticked, including the suspended
+     * ender chests of offline players.
+     */
+    public int timerRate(InventoryId inventoryId) {
+        if (!(inventoryId instanceof InventoryId.PlayerInventoryId playerInvId)) {
+            return 0;
+        }
+        return switch (playerInvId.getInventoryType()) {
+            case PLAYER -> platform.isOnline(playerInvId.getPlayerId()) ? INVENTORY_TICK_SECONDS : 0;
+            case ENDER_CHEST -> platform.isOnline(playerInvId.getPlayerId()) ? ENDER_CHEST_TICK_SECONDS : 0;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Stop the player's ender chest timers ticking until it is next settled;
+     * call when the player leaves. Nothing is done for the chest while its
+     * owner is offline. The time that passes is applied all at once when the
+     * chest is next looked at, by settleEnderChest or settleOfflineEnderChests.
+     */
+    public void suspendEnderChest(UUID playerId) {
+        enderChestsSuspendedAt.put(playerId, platform.nanoTime());
+    }
+
+    /**
+     * Apply the time since the player's ender chest was suspended, and keep
+     * counting from now if the player is still offline. Call before the
+     * chest's records are used: on join, when it is opened, before persisting.
+     * Does nothing for a chest that isn't suspended.
+     */
+    public void settleEnderChest(UUID playerId) {
+        Long suspendedAt = enderChestsSuspendedAt.remove(playerId);
+        if (suspendedAt == null) {
+            return;
+        }
+
+        long seconds = (platform.nanoTime() - suspendedAt) / SECOND_NANOS;
+        if (seconds > 0) {
+            tickInventory(
+                    InventoryId.player(playerId, InventoryType.ENDER_CHEST),
+                    (int) Math.min(Integer.MAX_VALUE, seconds * ENDER_CHEST_TICK_SECONDS),
+                    this::reInitInPlayerInventory
+            );
+        }
+        if (!platform.isOnline(playerId)) {
+            // Keep the fraction of a second for next time
+            enderChestsSuspendedAt.putIfAbsent(playerId, suspendedAt + seconds * SECOND_NANOS);
+        }
+    }
+
+    /**
+     * settleEnderChest for every offline player, e.g. before persisting or
+     * exporting. Run on the global region; these records aren't touched
+     * anywhere else, so their snapshots are republished right away.
+     */
+    public void settleOfflineEnderChests() {
+        for (UUID playerId : List.copyOf(enderChestsSuspendedAt.keySet())) {
+            settleEnderChest(playerId);
+            if (!platform.isOnline(playerId)) {
+                publish(InventoryId.player(playerId, InventoryType.ENDER_CHEST));
+            }
+        }
     }
 
     /**
@@ -1220,6 +2303,19 @@ public class OwnershipTable {
             int seconds,
             Predicate<InventoryId> shouldTick,
             BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        long started = System.nanoTime();
+        try {
+            tickInventoryUntimed(seconds, shouldTick, preTickTransform);
+        } finally {
+            tickInventoryTimer.recordSince(started);
+        }
+    }
+
+    private void tickInventoryUntimed(
+            int seconds,
+            Predicate<InventoryId> shouldTick,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
     ) {
         if (seconds <= 0) {
             return;
@@ -1235,41 +2331,286 @@ public class OwnershipTable {
                 continue;
             }
 
-            // For each ItemStack in this inventory
-            for (StableOrderingMap<OwnershipStatus, Integer> records
-                    : invEntry.getValue().values()) {
+            if (tickRecords(invId, invEntry.getValue(), seconds, preTickTransform)) {
+                markModified(invId);
+            }
+        }
+    }
+
+    /**
+     * Tick a single inventory, looked up directly instead of scanning the table.
+     */
+    public void tickInventory(
+            InventoryId invId,
+            int seconds,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        long started = System.nanoTime();
+        try {
+            tickInventoryUntimed(invId, seconds, preTickTransform);
+        } finally {
+            tickInventoryTimer.recordSince(started);
+        }
+    }
+
+    private void tickInventoryUntimed(
+            InventoryId invId,
+            int seconds,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        if (seconds <= 0) {
+            return;
+        }
+
+        // Only republished if a timer actually moved
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = table.get(invId);
+        if (byItemStack != null && tickRecords(invId, byItemStack, seconds, preTickTransform)) {
+            markModified(invId);
+        }
+    }
+
+    /**
+     * Tick every bucket in place. Returns whether any status changed; a
+     * bucket with no running timer is left untouched.
+     */
+    // Package-private for the benchmarks in server-jmh
+    static boolean tickRecords(
+            InventoryId invId,
+            Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack,
+            int seconds,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        boolean changed = false;
+        // For each ItemStack in this inventory
+        for (StableOrderingMap<OwnershipStatus, Integer> records : byItemStack.values()) {
+
+            if (records.isEmpty()) {
+                continue;
+            }
+
+            List<Map.Entry<OwnershipStatus, Integer>> updated =
+                    tickEntries(invId, records.entrySet(), seconds, preTickTransform);
+            // Statuses are distinct within a bucket, so if each one ticked to
+            // itself nothing merges and the bucket stays as it is
+            if (OwnershipSnapshot.sameEntries(records, updated)) {
+                continue;
+            }
+            changed = true;
 
+            // Rebuild the StableOrderingMap so that:
+            //  - keys are the ticked OwnershipStatus values
+            //  - equal statuses are merged
+            //  - insertion order for ties is based on original order
+            records.clear();
+
+            for (Map.Entry<OwnershipStatus, Integer> e : updated) {
+                records.merge(e.getKey(), e.getValue(), Integer::sum);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Compute updated statuses for one bucket, in the bucket's order and
+     * without merging. Touches nothing shared, so it is safe off-thread.
+     */
+    private static List<Map.Entry<OwnershipStatus, Integer>> tickEntries(
+            InventoryId invId,
+            Collection<Map.Entry<OwnershipStatus, Integer>> entries,
+            int seconds,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        List<Map.Entry<OwnershipStatus, Integer>> updated = new ArrayList<>(entries.size());
+
+        for (Map.Entry<OwnershipStatus, Integer> e : entries) {
+            OwnershipStatus oldStatus = e.getKey();
+            int amount = e.getValue();
+
+            // First, allow the caller to transform "empty" statuses, etc.
+            OwnershipStatus transformed =
+                    preTickTransform.apply(invId, oldStatus);
+
+            // Then apply the timer tick
+            OwnershipStatus newStatus = transformed.tickTimer(seconds);
+            updated.add(new AbstractMap.SimpleEntry<>(newStatus, amount));
+        }
+        return updated;
+    }
+
+    // ---------------------------------------------------
+    // Off-thread ticking
+    // ---------------------------------------------------
+
+    /**
+     * One bucket as it was when the tick started, and what it ticks to.
+     * {@code before} is never modified: usually the published snapshot's
+     * list, otherwise a copy. OwnershipStatus is immutable, so copying the
+     * entries is enough.
+     */
+    private static final class TickedBucket {
+        final ItemStack key;
+        final Comparator<? super OwnershipStatus> order;
+        final List<Map.Entry<OwnershipStatus, Integer>> before;
+        StableOrderingMap<OwnershipStatus, Integer> after;
+
+        TickedBucket(ItemStack key, Comparator<? super OwnershipStatus> order, List<Map.Entry<OwnershipStatus, Integer>> before) {
+            this.key = key;
+            this.order = order;
+            this.before = before;
+        }
+
+        static TickedBucket copyOf(ItemStack key, StableOrderingMap<OwnershipStatus, Integer> records) {
+            List<Map.Entry<OwnershipStatus, Integer>> before = new ArrayList<>(records.size());
+            for (Map.Entry<OwnershipStatus, Integer> e : records.entrySet()) {
+                before.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()));
+            }
+            return new TickedBucket(key, records.getOrderComparator(), before);
+        }
+
+        /**
+         * Compute {@code after}; returns whether it differs from {@code before}.
+         */
+        boolean tick(
+                InventoryId invId,
+                int seconds,
+                BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+        ) {
+            after = new StableOrderingMap<>(order, OwnershipStatus::equals);
+            for (Map.Entry<OwnershipStatus, Integer> e : tickEntries(invId, before, seconds, preTickTransform)) {
+                after.merge(e.getKey(), e.getValue(), Integer::sum);
+            }
+            return !OwnershipSnapshot.sameEntries(after, before);
+        }
+    }
+
+    private volatile boolean asyncTicking = false;
+    private final Set<InventoryId> ticksInFlight = ConcurrentHashMap.newKeySet();
+    // Seconds that came due while a tick of the same inventory was in flight
+    private final Map<InventoryId, Integer> owedTickSeconds = new ConcurrentHashMap<>();
+
+    /**
+     * When on, timer ticks snapshot the inventory's buckets, compute the new
+     * statuses on a worker thread and apply only the buckets that changed,
+     * back on the owning thread.
+     */
+    public void setAsyncTicking(boolean asyncTicking) {
+        this.asyncTicking = asyncTicking;
+    }
+
+    private void tickOn(
+            Executor owner,
+            InventoryId invId,
+            int seconds,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        if (!asyncTicking) {
+            tickInventory(invId, seconds, preTickTransform);
+            return;
+        }
+        if (seconds <= 0) {
+            return;
+        }
+        if (!ticksInFlight.add(invId)) {
+            // Still waiting on the last one; fold these seconds into the next
+            owedTickSeconds.merge(invId, seconds, Integer::sum);
+            return;
+        }
+
+        Integer owed = owedTickSeconds.remove(invId);
+        final int total = seconds + (owed != null ? owed : 0);
+
+        Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = table.get(invId);
+        // With nothing waiting to be published, the published snapshot already
+        // holds immutable copies of the live buckets; only copy when it lags.
+        // applyTick checks each bucket against the live one either way.
+        OwnershipSnapshot published = dirtyInventories.contains(invId) ? null : snapshots.get(invId);
+        List<TickedBucket> snapshot = new ArrayList<>();
+        if (byItemStack != null) {
+            for (Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> entry : byItemStack.entrySet()) {
+                StableOrderingMap<OwnershipStatus, Integer> records = entry.getValue();
                 if (records.isEmpty()) {
                     continue;
                 }
+                List<Map.Entry<OwnershipStatus, Integer>> before = published != null ? published.get(entry.getKey()) : null;
+                snapshot.add(before != null && !before.isEmpty()
+                        ? new TickedBucket(entry.getKey(), records.getOrderComparator(), before)
+                        : TickedBucket.copyOf(entry.getKey(), records));
+            }
+        }
+        if (snapshot.isEmpty()) {
+            ticksInFlight.remove(invId);
+            return;
+        }
 
-                // Compute updated statuses while preserving stable ordering semantics
-                List<Map.Entry<OwnershipStatus, Integer>> updated =
-                        new ArrayList<>(records.size());
+        try {
+            platform.runAsync(() -> {
+                try {
+                    List<TickedBucket> diff = new ArrayList<>();
+                    for (TickedBucket bucket : snapshot) {
+                        if (bucket.tick(invId, total, preTickTransform)) {
+                            diff.add(bucket);
+                        }
+                    }
+                    owner.execute(() -> applyTick(invId, diff, total, preTickTransform));
+                } catch (RuntimeException e) {
+                    abandonTick(invId, total);
+                    throw e;
+                }
+            });
+        } catch (RuntimeException e) {
+            abandonTick(invId, total);
+            throw e;
+        }
+    }
 
-                for (Map.Entry<OwnershipStatus, Integer> e : records.entrySet()) {
-                    OwnershipStatus oldStatus = e.getKey();
-                    int amount = e.getValue();
+    /**
+     * A tick that will never reach applyTick, because computing it failed or
+     * the owner wouldn't take it back. Its seconds are owed to the next one,
+     * which would otherwise wait on it forever.
+     */
+    private void abandonTick(InventoryId invId, int seconds) {
+        owedTickSeconds.merge(invId, seconds, Integer::sum);
+        ticksInFlight.remove(invId);
+    }
 
-                    // First, allow the caller to transform "empty" statuses, etc.
-                    OwnershipStatus transformed =
-                            preTickTransform.apply(invId, oldStatus);
+    /**
+     * Apply a computed tick on the owning thread. A bucket that changed since
+     * the snapshot is ticked again as it is now instead, so no seconds are
+     * lost or counted twice. Items that arrive while a tick is in flight
+     * start counting from the next one.
+     */
+    private void applyTick(
+            InventoryId invId,
+            List<TickedBucket> diff,
+            int seconds,
+            BiFunction<InventoryId, OwnershipStatus, OwnershipStatus> preTickTransform
+    ) {
+        try {
+            // diff only holds buckets that ticked to something new; with none, nothing is republished
+            Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> byItemStack = table.get(invId);
+            if (byItemStack == null) {
+                return;
+            }
 
-                    // Then apply the timer tick
-                    OwnershipStatus newStatus = transformed.tickTimer(seconds);
-                    updated.add(new AbstractMap.SimpleEntry<>(newStatus, amount));
+            boolean changed = false;
+            for (TickedBucket bucket : diff) {
+                StableOrderingMap<OwnershipStatus, Integer> records = byItemStack.get(bucket.key);
+                if (records == null || records.isEmpty()) {
+                    continue;
                 }
 
-                // Rebuild the StableOrderingMap so that:
-                //  - keys are the ticked OwnershipStatus values
-                //  - equal statuses are merged
-                //  - insertion order for ties is based on original order
-                records.clear();
-
-                for (Map.Entry<OwnershipStatus, Integer> e : updated) {
-                    records.merge(e.getKey(), e.getValue(), Integer::sum);
+                if (records.getOrderComparator() == bucket.order && OwnershipSnapshot.sameEntries(records, bucket.before)) {
+                    records.setAllInOrder(bucket.after);
+                    changed = true;
+                } else {
+                    changed |= tickRecords(invId, Map.of(bucket.key, records), seconds, preTickTransform);
                 }
             }
+            if (changed) {
+                markModified(invId);
+            }
+        } finally {
+            ticksInFlight.remove(invId);
         }
     }
 
@@ -1306,7 +2647,20 @@ public class OwnershipTable {
     // Persistence
     // ---------------------------------------------------
 
+    /**
+     * Inventory records are written from the published snapshots; call
+     * publishAll() first if changes from this tick must be included.
+     */
     public void persist(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        try {
+            persistUntimed(connection);
+        } finally {
+            persistTimer.recordSince(started);
+        }
+    }
+
+    private void persistUntimed(Connection connection) throws SQLException {
         // Create tables if needed
         try (PreparedStatement ps = connection.prepareStatement(
                 "CREATE TABLE IF NOT EXISTS ownership_inventories (" +
@@ -1329,6 +2683,15 @@ public class OwnershipTable {
             ps.executeUpdate();
         }
 
+        try (PreparedStatement ps = connection.prepareStatement(
+                "CREATE TABLE IF NOT EXISTS ownership_chunk_item_entities (" +
+                "  chunk        TEXT    PRIMARY KEY," +
+                "  data         TEXT    NOT NULL" +
+                ")"
+        )) {
+            ps.executeUpdate();
+        }
+
         // Clear existing rows
         try (PreparedStatement ps = connection.prepareStatement(
                 "DELETE FROM ownership_inventories"
@@ -1346,22 +2709,18 @@ public class OwnershipTable {
                 "INSERT INTO ownership_inventories (inventory_id, itemstack, ownership) " +
                 "VALUES (?, ?, ?)"
         )) {
-            for (Map.Entry<InventoryId, Map<ItemStack, StableOrderingMap<OwnershipStatus, Integer>>> outer
-                    : table.entrySet()) {
+            // Written from the published snapshots, so this part is safe off-thread
+            for (Map.Entry<InventoryId, OwnershipSnapshot> outer : snapshots.entrySet()) {
 
                 String inventoryIdStr = outer.getKey().serialize();
 
-                for (Map.Entry<ItemStack, StableOrderingMap<OwnershipStatus, Integer>> inner
-                        : outer.getValue().entrySet()) {
+                for (Map.Entry<ItemStack, List<Map.Entry<OwnershipStatus, Integer>>> inner
+                        : outer.getValue().getBuckets().entrySet()) {
 
                     ItemStack item = inner.getKey();
-                    StableOrderingMap<OwnershipStatus, Integer> amount = inner.getValue();
 
                     byte[] itemBytes = item.serializeAsBytes();
-                    String ownershipStr = amount.serialize(
-                        OwnershipStatus::serialize,
-                        v -> Integer.toString(v)
-                    );
+                    String ownershipStr = OwnershipSnapshot.serializeBucket(inner.getValue());
 
                     ps.setString(1, inventoryIdStr);
                     ps.setBytes(2, itemBytes);
@@ -1372,12 +2731,30 @@ public class OwnershipTable {
             ps.executeBatch();
         }
 
-        // Insert entries for `itemEntities`
+        // Write loaded chunk buckets for `itemEntities`. Items may have
+        // wandered since they were indexed, so re-bucket by where they are now.
+        Map<ChunkKey, Map<UUID, StableOrderingMap<OwnershipStatus, Integer>>> byCurrentChunk = new HashMap<>();
+        for (Map.Entry<ChunkKey, Map<UUID, StableOrderingMap<OwnershipStatus, Integer>>> bucket
+                : itemEntities.entrySet()) {
+            for (Map.Entry<UUID, StableOrderingMap<OwnershipStatus, Integer>> entry : bucket.getValue().entrySet()) {
+                Entity entity = Bukkit.getEntity(entry.getKey());
+                ChunkKey chunk = entity != null ? ChunkKey.from(entity.getLocation()) : bucket.getKey();
+                byCurrentChunk
+                    .computeIfAbsent(chunk, k -> new HashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<ChunkKey, Map<UUID, StableOrderingMap<OwnershipStatus, Integer>>> bucket
+                : byCurrentChunk.entrySet()) {
+            writeChunkBucket(connection, bucket.getKey(), bucket.getValue());
+        }
+
+        // Legacy rows that never matched a loaded entity stay in the flat table
         try (PreparedStatement ps = connection.prepareStatement(
                 "INSERT INTO ownership_item_entities (entity_uuid, ownership) " +
                 "VALUES (?, ?)"
         )) {
-            for (Map.Entry<UUID, StableOrderingMap<OwnershipStatus, Integer>> entry : itemEntities.entrySet()) {
+            for (Map.Entry<UUID, StableOrderingMap<OwnershipStatus, Integer>> entry : detachedItemEntities.entrySet()) {
                 String uuidStr = entry.getKey().toString();
                 StableOrderingMap<OwnershipStatus, Integer> amount = entry.getValue();
 
@@ -1395,6 +2772,15 @@ public class OwnershipTable {
     }
 
     public void load(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        try {
+            loadUntimed(connection);
+        } finally {
+            loadTimer.recordSince(started);
+        }
+    }
+
+    private void loadUntimed(Connection connection) throws SQLException {
         // Ensure tables exist (no-ops if already created)
         try (PreparedStatement ps = connection.prepareStatement(
                 "CREATE TABLE IF NOT EXISTS ownership_inventories (" +
@@ -1417,9 +2803,22 @@ public class OwnershipTable {
             ps.executeUpdate();
         }
 
+        try (PreparedStatement ps = connection.prepareStatement(
+                "CREATE TABLE IF NOT EXISTS ownership_chunk_item_entities (" +
+                "  chunk        TEXT    PRIMARY KEY," +
+                "  data         TEXT    NOT NULL" +
+                ")"
+        )) {
+            ps.executeUpdate();
+        }
+
         // Clear in-memory state
         table.clear();
+        snapshots.clear();
+        enderChestsSuspendedAt.clear();
         itemEntities.clear();
+        itemEntityChunks.clear();
+        detachedItemEntities.clear();
 
         // Load `table`
         try (PreparedStatement ps = connection.prepareStatement(
@@ -1433,7 +2832,7 @@ public class OwnershipTable {
                 String ownershipStr = rs.getString("ownership");
 
                 InventoryId inventoryId = InventoryId.deserialize(inventoryIdStr);
-                ItemStack item = ItemStack.deserializeBytes(itemBytes);
+                ItemStack item = ItemKeys.of(ItemStack.deserializeBytes(itemBytes));
                 StableOrderingMap<OwnershipStatus, Integer> amount =
                     StableOrderingMap.deserialize(
                         ownershipStr,
@@ -1441,13 +2840,16 @@ public class OwnershipTable {
                         Integer::parseInt
                     );
 
-                table
-                    .computeIfAbsent(inventoryId, k -> new HashMap<>())
-                    .put(item, amount);
+                // Rows stored before a component was ignored may now share a key
+                recordsOf(inventoryId)
+                    .merge(item, amount, (existing, incoming) -> {
+                        incoming.forEach((status, amt) -> existing.merge(status, amt, Integer::sum));
+                        return existing;
+                    });
             }
         }
 
-        // Load `itemEntities`
+        // Load legacy flat `itemEntities` rows; they are adopted by chunk on entity load
         try (PreparedStatement ps = connection.prepareStatement(
                 "SELECT entity_uuid, ownership FROM ownership_item_entities"
         );
@@ -1465,8 +2867,246 @@ public class OwnershipTable {
                         Integer::parseInt
                     );
 
-                itemEntities.put(uuid, amount);
+                detachedItemEntities.put(uuid, amount);
+            }
+        }
+
+        // Offline players' ender chests count from now; downtime isn't ticked
+        for (InventoryId inventoryId : table.keySet()) {
+            if (inventoryId instanceof InventoryId.PlayerInventoryId playerInvId
+                    && playerInvId.getInventoryType() == InventoryType.ENDER_CHEST
+                    && !platform.isOnline(playerInvId.getPlayerId())) {
+                suspendEnderChest(playerInvId.getPlayerId());
+            }
+        }
+
+        // Chunks that were loaded before the plugin enabled won't fire EntitiesLoadEvent
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                if (chunk.isEntitiesLoaded()) {
+                    loadChunk(connection, chunk, Arrays.asList(chunk.getEntities()));
+                }
+            }
+        }
+
+        publishAll();
+    }
+
+    /**
+     * Restore item entity ownership for a chunk whose entities just loaded.
+     * The stored bucket is evicted from storage: from now on it lives in memory
+     * until the chunk unloads again.
+     */
+    public void loadChunk(Connection connection, Chunk chunk, List<Entity> entities) throws SQLException {
+        List<Item> items = itemsOf(entities);
+        if (items.isEmpty()) {
+            // Nothing left to claim the stored entries
+            dropChunkBucket(connection, ChunkKey.from(chunk));
+            return;
+        }
+
+        // Stored entries for entities that are no longer in the chunk are dropped
+        adoptChunkBucket(items, takeChunkBucket(connection, ChunkKey.from(chunk)));
+    }
+
+    /**
+     * The item entities among a chunk's entities. A chunk without any can't
+     * have a stored bucket worth reading; dropChunkBucket it instead.
+     */
+    public static List<Item> itemsOf(List<Entity> entities) {
+        List<Item> items = new ArrayList<>();
+        for (Entity entity : entities) {
+            if (entity instanceof Item item) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Read and delete the stored bucket of a chunk. Touches no in-memory
+     * state, so it can run on Blocking.
+     */
+    public Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> takeChunkBucket(
+            Connection connection,
+            ChunkKey chunkKey
+    ) throws SQLException {
+        Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> stored = readChunkBucket(connection, chunkKey);
+
+        if (!stored.isEmpty()) {
+            dropChunkBucket(connection, chunkKey);
+        }
+        return stored;
+    }
+
+    /**
+     * Delete the stored bucket of a chunk without reading it, for a chunk that
+     * loaded without any item entities. Blocking; touches no in-memory state.
+     */
+    public void dropChunkBucket(Connection connection, ChunkKey chunkKey) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "DELETE FROM ownership_chunk_item_entities WHERE chunk = ?"
+        )) {
+            ps.setString(1, chunkKey.serialize());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Give each item entity its stored ownership, or its legacy detached one.
+     * Call on the thread owning the chunk. Returns the stored entries that no
+     * entity claimed.
+     */
+    public Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> adoptChunkBucket(
+            List<Item> items,
+            Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> stored
+    ) {
+        Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> unclaimed = new HashMap<>(stored);
+        for (Item item : items) {
+            if (!item.isValid()) {
+                // Picked up or despawned since the chunk loaded
+                continue;
+            }
+            UUID uuid = item.getUniqueId();
+            StableOrderingMap<OwnershipStatus, Integer> ownership = unclaimed.remove(uuid);
+            if (ownership == null && !detachedItemEntities.isEmpty()) {
+                ownership = detachedItemEntities.remove(uuid);
             }
+            if (ownership != null) {
+                setItemEntityOwner(item, ownership);
+            }
+        }
+        return unclaimed;
+    }
+
+    /**
+     * Evict the ownership of every item entity in an unloading chunk from
+     * memory and return it, for writeChunkBucket to store.
+     */
+    public Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> evictChunk(List<Entity> entities) {
+        Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> evicted = new HashMap<>();
+
+        // Go by the entities actually in the chunk: items indexed here may have
+        // moved into a neighbouring chunk, and items indexed elsewhere may have moved in.
+        for (Entity entity : entities) {
+            if (!(entity instanceof Item)) {
+                continue;
+            }
+            UUID uuid = entity.getUniqueId();
+            ChunkKey indexed = itemEntityChunks.remove(uuid);
+            if (indexed == null) {
+                continue;
+            }
+            StableOrderingMap<OwnershipStatus, Integer> ownership = removeFromChunkBucket(indexed, uuid);
+            if (ownership != null && !ownership.isEmpty()) {
+                evicted.put(uuid, ownership);
+            }
+        }
+        return evicted;
+    }
+
+    private Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> readChunkBucket(
+            Connection connection,
+            ChunkKey chunkKey
+    ) throws SQLException {
+        Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket = new HashMap<>();
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT data FROM ownership_chunk_item_entities WHERE chunk = ?"
+        )) {
+            ps.setString(1, chunkKey.serialize());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    bucket.putAll(deserializeChunkBucket(rs.getString("data")));
+                }
+            }
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Store ownership under a chunk, replacing whatever is stored there: the
+     * bucket is everything the chunk's item entities own, so entries for
+     * entities that are gone are pruned. An empty bucket deletes the row.
+     * Blocking; touches no in-memory state.
+     */
+    public void writeChunkBucket(
+            Connection connection,
+            ChunkKey chunkKey,
+            Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket
+    ) throws SQLException {
+        if (bucket.isEmpty()) {
+            dropChunkBucket(connection, chunkKey);
+            return;
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO ownership_chunk_item_entities (chunk, data) " +
+                "VALUES (?, ?) " +
+                "ON CONFLICT(chunk) DO UPDATE SET data = excluded.data"
+        )) {
+            ps.setString(1, chunkKey.serialize());
+            ps.setString(2, serializeChunkBucket(bucket));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Put a bucket taken by takeChunkBucket back, keeping anything stored
+     * under the chunk since: it unloaded again before the bucket could be
+     * adopted, and its unload may have written items indexed in the meantime.
+     */
+    public void restoreChunkBucket(
+            Connection connection,
+            ChunkKey chunkKey,
+            Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket
+    ) throws SQLException {
+        Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> merged = readChunkBucket(connection, chunkKey);
+        // Entries written since are newer than the ones taken
+        bucket.forEach(merged::putIfAbsent);
+        writeChunkBucket(connection, chunkKey, merged);
+    }
+
+    /**
+     * Serialize a chunk bucket to a string.
+     *
+     * Format: one entity per line, entityUuid@ownership
+     */
+    private static String serializeChunkBucket(Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<UUID, StableOrderingMap<OwnershipStatus, Integer>> entry : bucket.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append("\n");
+            }
+            sb.append(entry.getKey()).append("@").append(entry.getValue().serialize(
+                OwnershipStatus::serialize,
+                v -> Integer.toString(v)
+            ));
+        }
+        return sb.toString();
+    }
+
+    private static Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> deserializeChunkBucket(String data) {
+        Map<UUID, StableOrderingMap<OwnershipStatus, Integer>> bucket = new HashMap<>();
+        if (data == null || data.isEmpty()) {
+            return bucket;
+        }
+
+        for (String line : data.split("\n")) {
+            int at = line.indexOf('@');
+            if (at < 0) {
+                continue;
+            }
+            bucket.put(
+                UUID.fromString(line.substring(0, at)),
+                StableOrderingMap.deserialize(
+                    line.substring(at + 1),
+                    OwnershipStatus::deserialize,
+                    Integer::parseInt
+                )
+            );
         }
+        return bucket;
     }
 }
@@ -0,0 +1,66 @@
+package com.fairkeepinventory.model;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Slot -> item key index for one player inventory, together with the reverse
+ * key -> slots mapping so a lookup only visits the slots holding that key.
+ *
+ * The index can lag behind the real inventory (not every change fires an
+ * event), so callers must still check what is actually in a slot.
+ */
+public final class SlotIndex {
+    private final ItemStack[] keys;
+    private final Map<ItemStack, BitSet> slotsByKey = new HashMap<>();
+
+    public SlotIndex(int size) {
+        this.keys = new ItemStack[size];
+    }
+
+    /**
+     * Record the key in a slot; {@code key} is an ItemKeys key, or null for an
+     * empty slot. Out-of-range slots are ignored.
+     */
+    public void set(int slot, ItemStack key) {
+        if (slot < 0 || slot >= keys.length) {
+            return;
+        }
+
+        ItemStack previous = keys[slot];
+        if (previous != null) {
+            BitSet slots = slotsByKey.get(previous);
+            if (slots != null) {
+                slots.clear(slot);
+                if (slots.isEmpty()) {
+                    slotsByKey.remove(previous);
+                }
+            }
+        }
+
+        keys[slot] = key;
+        if (key != null) {
+            slotsByKey.computeIfAbsent(key, k -> new BitSet(keys.length)).set(slot);
+        }
+    }
+
+    public ItemStack get(int slot) {
+        return slot >= 0 && slot < keys.length ? keys[slot] : null;
+    }
+
+    /**
+     * Slots last seen holding this key, in ascending order. The returned array
+     * is a copy, so the index may be updated while iterating it.
+     */
+    public int[] slotsOf(ItemStack key) {
+        BitSet slots = slotsByKey.get(key);
+        return slots != null ? slots.stream().toArray() : new int[0];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fairkeepinventory.platform;
+
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+
+import com.fairkeepinventory.model.InventoryId;
+import com.fairkeepinventory.util.Scheduling;
+
+/**
+ * The running server, through Bukkit and the Paper schedulers.
+ */
+public final class BukkitPlatform implements Platform {
+    public static final BukkitPlatform INSTANCE = new BukkitPlatform();
+
+    private BukkitPlatform() {
+    }
+
+    @Override
+    public boolean isOnline(UUID playerId) {
+        return Bukkit.getPlayer(playerId) != null;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void runOnOwner(InventoryId inventoryId, Runnable task) {
+        if (inventoryId instanceof InventoryId.EntityInventoryId entityInvId) {
+            Entity entity = Bukkit.getEntity(entityInvId.getUuid());
+            if (entity != null && Scheduling.runForEntity(entity, task, task)) {
+                return;
+            }
+        } else if (inventoryId instanceof InventoryId.BlockInventoryId blockInvId) {
+            Scheduling.runAt(blockInvId.getLocation(), task);
+            return;
+        }
+        // Offline players, removed entities (even if removed just now) and virtual inventories
+        Scheduling.runGlobal(task);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(InventoryId inventoryId) {
+        if (inventoryId instanceof InventoryId.EntityInventoryId entityInvId) {
+            Entity entity = Bukkit.getEntity(entityInvId.getUuid());
+            if (entity != null) {
+                return Bukkit.isOwnedByCurrentRegion(entity);
+            }
+        } else if (inventoryId instanceof InventoryId.BlockInventoryId blockInvId) {
+            return Bukkit.isOwnedByCurrentRegion(blockInvId.getLocation());
+        }
+        return Bukkit.isGlobalTickThread();
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Scheduling.runAsync(task);
+    }
+}
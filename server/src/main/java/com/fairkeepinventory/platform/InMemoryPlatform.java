@@ -0,0 +1,75 @@
+package com.fairkeepinventory.platform;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fairkeepinventory.model.InventoryId;
+
+/**
+ * A platform with no scheduler or player list behind it; item keys and
+ * inventories still come from the server (see Platform). Players are online
+ * when told so, the clock only moves when advanced, and every task, owner or
+ * async, waits in one queue until runPending() is called. That keeps a run
+ * deterministic and leaves the caller on a single thread.
+ */
+public final class InMemoryPlatform implements Platform {
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private volatile long nanos;
+
+    public void join(UUID playerId) {
+        online.add(playerId);
+    }
+
+    public void quit(UUID playerId) {
+        online.remove(playerId);
+    }
+
+    public void advance(long amount, TimeUnit unit) {
+        nanos += unit.toNanos(amount);
+    }
+
+    /**
+     * Run queued tasks, including any they queue, until none are left.
+     * Returns how many ran.
+     */
+    public int runPending() {
+        int ran = 0;
+        Runnable task;
+        while ((task = pending.poll()) != null) {
+            task.run();
+            ran++;
+        }
+        return ran;
+    }
+
+    @Override
+    public boolean isOnline(UUID playerId) {
+        return online.contains(playerId);
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public void runOnOwner(InventoryId inventoryId, Runnable task) {
+        pending.add(task);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(InventoryId inventoryId) {
+        // Everything runs on the caller's thread
+        return true;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        pending.add(task);
+    }
+}
@@ -0,0 +1,45 @@
+package com.fairkeepinventory.platform;
+
+import java.util.UUID;
+
+import com.fairkeepinventory.model.InventoryId;
+
+/**
+ * Player presence, a clock, and somewhere to run tasks: the parts of the
+ * server the ownership engine's timers and publishing depend on.
+ *
+ * Inventories and item keys are not behind this interface. OwnershipTable
+ * still keys its records by Bukkit ItemStacks and reads Bukkit Inventories,
+ * and neither can be created without a server. So on InMemoryPlatform only
+ * the paths that never build one run in a plain JVM: ticking and snapshot
+ * publishing over tables filled with opaque keys, as HeadlessTickBenchmark
+ * does. Everything else still needs a server, if not a live table.
+ *
+ * BukkitPlatform is the real thing.
+ */
+public interface Platform {
+    boolean isOnline(UUID playerId);
+
+    /**
+     * Monotonic time, comparable with System.nanoTime() on the Bukkit
+     * platform.
+     */
+    long nanoTime();
+
+    /**
+     * Run on the thread that owns the inventory: its entity's or block's
+     * region, or the global region when it has neither.
+     */
+    void runOnOwner(InventoryId inventoryId, Runnable task);
+
+    /**
+     * Whether the calling thread is the one runOnOwner would use, so the
+     * inventory can be read right away.
+     */
+    boolean isOwnedByCurrentThread(InventoryId inventoryId);
+
+    /**
+     * Run off the server threads.
+     */
+    void runAsync(Runnable task);
+}
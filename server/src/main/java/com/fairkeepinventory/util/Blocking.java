@@ -0,0 +1,85 @@
+package com.fairkeepinventory.util;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plugin-wide executor for blocking side work: storage, name lookups, file
+ * exports. Every task gets its own virtual thread, so a slow disk or lookup
+ * never holds up a server thread or another task.
+ *
+ * Results that need to touch Bukkit state must be handed back through
+ * Scheduling; nothing here runs on a server thread.
+ */
+public final class Blocking {
+    private static ExecutorService executor;
+    // Tail of each lane; see supplyInOrder
+    private static final Map<Object, CompletableFuture<?>> lanes = new ConcurrentHashMap<>();
+
+    private Blocking() {
+    }
+
+    /**
+     * Call this once in your plugin's onEnable().
+     */
+    public static void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Stop accepting work and wait a little for queued tasks, e.g. storage
+     * writes from the last chunk unloads. Call from onDisable().
+     */
+    public static void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lanes.clear();
+    }
+
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> call(task), executor);
+    }
+
+    /**
+     * Run after every task submitted earlier to the same lane has finished,
+     * whether it succeeded or not. Use a lane per resource when the order of
+     * reads and writes to it matters.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<T> supplyInOrder(Object lane, Callable<T> task) {
+        CompletableFuture<T>[] result = new CompletableFuture[1];
+        lanes.compute(lane, (k, tail) -> {
+            CompletableFuture<?> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            result[0] = previous.handleAsync((ignored, error) -> call(task), executor);
+            return result[0];
+        });
+        result[0].whenComplete((ignored, error) -> lanes.remove(lane, result[0]));
+        return result[0];
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.fairkeepinventory.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Whole seconds passed on a monotonic clock since the last call to take(),
+ * with the fraction carried over to the next call. A timer driven by this
+ * keeps real time when the server lags, without scheduling catch-up work:
+ * a late run just takes more seconds at once.
+ *
+ * Not thread-safe; keep each one on a single thread.
+ */
+public final class ElapsedSeconds {
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final LongSupplier nanoClock;
+    private long countedUpTo;
+
+    /**
+     * @param nanoClock a monotonic nanosecond clock, normally the owning
+     *                  table's Platform::nanoTime so simulated time drives it too
+     */
+    public ElapsedSeconds(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.countedUpTo = nanoClock.getAsLong();
+    }
+
+    public int take() {
+        long seconds = (nanoClock.getAsLong() - countedUpTo) / SECOND_NANOS;
+        if (seconds <= 0) {
+            return 0;
+        }
+        countedUpTo += seconds * SECOND_NANOS;
+        return (int) Math.min(Integer.MAX_VALUE, seconds);
+    }
+}
@@ -0,0 +1,237 @@
+package com.fairkeepinventory.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Plugin-wide counters, gauges and latency histograms, cheap enough for
+ * event handlers: recording is a LongAdder increment or two, from any
+ * thread, with no locking.
+ *
+ * Metrics are registered once, usually into a static final field, under a
+ * Prometheus-style name and at most one label. They are read by /fki stats
+ * and MetricsEndpoint.
+ */
+public final class Metrics {
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * A latency histogram with fixed buckets from 1 µs to 1 s.
+     */
+    public static final class Timer {
+        // Bucket upper bounds in nanoseconds; one more bucket catches the rest
+        private static final long[] BOUNDS = {
+            1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 100_000_000L, 1_000_000_000L
+        };
+
+        private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+        private final LongAdder sumNanos = new LongAdder();
+
+        private Timer() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long nanos) {
+            int i = 0;
+            while (i < BOUNDS.length && nanos > BOUNDS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sumNanos.add(nanos);
+        }
+
+        /**
+         * Record the time since {@code startNanos}, a System.nanoTime() value.
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        private long[] counts() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile, in
+         * nanoseconds; Long.MAX_VALUE if it is past the last bound.
+         */
+        private static long quantile(long[] counts, long total, double quantile) {
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return BOUNDS[i];
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private enum Type {
+        COUNTER, GAUGE, HISTOGRAM
+    }
+
+    private record Family(String name, String help, Type type, String labelName, Map<String, Object> children) {
+    }
+
+    private static final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help) {
+        return counter(name, help, null, null);
+    }
+
+    public static Counter counter(String name, String help, String labelName, String labelValue) {
+        return (Counter) register(name, help, Type.COUNTER, labelName, labelValue, new Counter());
+    }
+
+    public static Timer timer(String name, String help, String labelName, String labelValue) {
+        return (Timer) register(name, help, Type.HISTOGRAM, labelName, labelValue, new Timer());
+    }
+
+    /**
+     * A timer that records like any other but is never reported, for code
+     * that only sometimes runs on behalf of the live server.
+     */
+    public static Timer unregisteredTimer() {
+        return new Timer();
+    }
+
+    /**
+     * A value read when the metrics are; {@code value} must be safe from any
+     * thread.
+     */
+    public static void gauge(String name, String help, LongSupplier value) {
+        register(name, help, Type.GAUGE, null, null, value);
+    }
+
+    /**
+     * Returns the metric already registered under this name and label, if
+     * any, so registering twice is harmless.
+     */
+    private static Object register(String name, String help, Type type, String labelName, String labelValue, Object metric) {
+        Family family = families.computeIfAbsent(
+            name, k -> new Family(name, help, type, labelName, new ConcurrentSkipListMap<>())
+        );
+        if (family.type() != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already a " + family.type());
+        }
+        return family.children().computeIfAbsent(labelValue != null ? labelValue : "", k -> metric);
+    }
+
+    /**
+     * Everything, in the Prometheus text exposition format.
+     */
+    public static String prometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ')
+                .append(family.type().name().toLowerCase(Locale.ROOT)).append('\n');
+
+            for (Map.Entry<String, Object> child : family.children().entrySet()) {
+                String label = family.labelName() != null
+                    ? family.labelName() + "=\"" + child.getKey() + "\""
+                    : "";
+                switch (family.type()) {
+                    case COUNTER -> sample(out, family.name(), label, Long.toString(((Counter) child.getValue()).get()));
+                    case GAUGE -> sample(out, family.name(), label, Long.toString(((LongSupplier) child.getValue()).getAsLong()));
+                    case HISTOGRAM -> {
+                        Timer timer = (Timer) child.getValue();
+                        long[] counts = timer.counts();
+                        long cumulative = 0;
+                        for (int i = 0; i < counts.length; i++) {
+                            cumulative += counts[i];
+                            String le = i < Timer.BOUNDS.length ? seconds(Timer.BOUNDS[i]) : "+Inf";
+                            String bucketLabel = (label.isEmpty() ? "" : label + ",") + "le=\"" + le + "\"";
+                            sample(out, family.name() + "_bucket", bucketLabel, Long.toString(cumulative));
+                        }
+                        sample(out, family.name() + "_sum", label, seconds(timer.sumNanos.sum()));
+                        sample(out, family.name() + "_count", label, Long.toString(cumulative));
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * One line per metric, for people: counts and gauges as they are,
+     * timers as count, mean and bucketed p50/p99.
+     */
+    public static List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        for (Family family : families.values()) {
+            for (Map.Entry<String, Object> child : family.children().entrySet()) {
+                String name = child.getKey().isEmpty() ? family.name() : family.name() + "{" + child.getKey() + "}";
+                switch (family.type()) {
+                    case COUNTER -> lines.add(name + " " + ((Counter) child.getValue()).get());
+                    case GAUGE -> lines.add(name + " " + ((LongSupplier) child.getValue()).getAsLong());
+                    case HISTOGRAM -> {
+                        Timer timer = (Timer) child.getValue();
+                        long[] counts = timer.counts();
+                        long total = 0;
+                        for (long count : counts) {
+                            total += count;
+                        }
+                        if (total == 0) {
+                            continue;
+                        }
+                        lines.add(String.format(
+                            "%s n=%d mean=%.1fµs p50<=%s p99<=%s",
+                            name, total, timer.sumNanos.sum() / 1_000.0 / total,
+                            micros(Timer.quantile(counts, total, 0.50)),
+                            micros(Timer.quantile(counts, total, 0.99))
+                        ));
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String value) {
+        out.append(name);
+        if (!label.isEmpty()) {
+            out.append('{').append(label).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+
+    private static String micros(long nanos) {
+        return nanos == Long.MAX_VALUE ? ">1s" : (nanos / 1_000L) + "µs";
+    }
+}
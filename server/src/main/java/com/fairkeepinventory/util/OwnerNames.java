@@ -0,0 +1,50 @@
+package com.fairkeepinventory.util;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Display names for ownership owners, cached for the plugin's lifetime.
+ *
+ * A miss goes through Bukkit.getOfflinePlayer, which may read the user cache
+ * or player data from disk, so resolve() is only to be called from Blocking.
+ */
+public final class OwnerNames {
+    private static final Map<UUID, String> names = new ConcurrentHashMap<>();
+
+    private OwnerNames() {
+    }
+
+    /**
+     * Record a name we already know, e.g. from a player joining.
+     */
+    public static void remember(UUID uuid, String name) {
+        if (name != null) {
+            names.put(uuid, name);
+        }
+    }
+
+    /**
+     * The owner's name, or the start of their UUID if it isn't known.
+     * Blocking on a cache miss.
+     */
+    public static String resolve(UUID uuid) {
+        String cached = names.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
+        OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
+        String name = player.getName();
+        if (name == null) {
+            // Not cached so it's retried next time, in case the profile turns up
+            return uuid.toString().substring(0, 8);
+        }
+        names.put(uuid, name);
+        return name;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fairkeepinventory.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Thin wrapper over Paper's region-aware schedulers.
+ *
+ * On Paper every method here ends up on the main thread, exactly like
+ * Bukkit.getScheduler(). On Folia, entity tasks run on the thread that owns
+ * the entity and location tasks on the thread that owns the location, which
+ * is what lets OwnershipTable leave each inventory to its owning region.
+ */
+public final class Scheduling {
+    private static Plugin plugin;
+
+    private Scheduling() {
+    }
+
+    /**
+     * Call this once in your plugin's onEnable(), before scheduling anything.
+     */
+    public static void init(Plugin owningPlugin) {
+        plugin = owningPlugin;
+    }
+
+    /**
+     * Run on the next tick of the region owning the entity. Dropped if the
+     * entity is removed first.
+     */
+    public static void runForEntity(Entity entity, Runnable task) {
+        runForEntityLater(entity, task, 1L);
+    }
+
+    /**
+     * Like runForEntity, but runs {@code retired} instead if the entity is
+     * removed before the task gets to run. Returns false, running neither,
+     * if the entity was already removed; the caller has to find another
+     * thread for the work.
+     */
+    public static boolean runForEntity(Entity entity, Runnable task, Runnable retired) {
+        return entity.getScheduler().execute(plugin, task, retired, 1L);
+    }
+
+    public static void runForEntityLater(Entity entity, Runnable task, long delayTicks) {
+        entity.getScheduler().execute(plugin, task, null, Math.max(1L, delayTicks));
+    }
+
+    public static ScheduledTask runForEntityTimer(Entity entity, Runnable task, long initialDelayTicks, long periodTicks) {
+        return entity.getScheduler().runAtFixedRate(
+            plugin, t -> task.run(), null, Math.max(1L, initialDelayTicks), periodTicks
+        );
+    }
+
+    /**
+     * Run on the next tick of the region owning the location.
+     */
+    public static void runAt(Location location, Runnable task) {
+        runAtLater(location, task, 1L);
+    }
+
+    public static void runAtLater(Location location, Runnable task, long delayTicks) {
+        Bukkit.getRegionScheduler().runDelayed(plugin, location, t -> task.run(), Math.max(1L, delayTicks));
+    }
+
+    /**
+     * Run on the global region: world-independent work that touches no
+     * entity or chunk owned by another region.
+     */
+    public static void runGlobal(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    public static ScheduledTask runGlobalTimer(Runnable task, long initialDelayTicks, long periodTicks) {
+        return Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+            plugin, t -> task.run(), Math.max(1L, initialDelayTicks), periodTicks
+        );
+    }
+
+    /**
+     * Run off every region thread. Must not touch world state.
+     */
+    public static void runAsync(Runnable task) {
+        Bukkit.getAsyncScheduler().runNow(plugin, t -> task.run());
+    }
+}
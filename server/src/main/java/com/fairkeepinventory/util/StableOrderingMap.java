@@ -75,6 +75,19 @@ public final class StableOrderingMap<K, V> extends AbstractMap<K, V> {
         return orderComparator;
     }
 
+    /**
+     * Replace the contents with {@code source}'s entries, taking its iteration
+     * order as already sorted. Only valid when {@code source} is ordered by
+     * this map's comparator and holds no duplicate keys; skips the per-key
+     * search and insertion that put() would do.
+     */
+    public void setAllInOrder(StableOrderingMap<K, V> source) {
+        entries.clear();
+        for (Entry<K, V> e : source.entries) {
+            entries.add(new Entry<>(e.getKey(), e.getValue()));
+        }
+    }
+
     private int indexOfKey(Object keyObj) {
         if (keyObj == null) {
             return -1;
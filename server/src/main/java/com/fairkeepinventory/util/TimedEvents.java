@@ -0,0 +1,51 @@
+package com.fairkeepinventory.util;
+
+import java.lang.reflect.Method;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Registers a listener like PluginManager.registerEvents, but times every
+ * handler call into the fki_event_handler_seconds histogram, labelled
+ * Listener.method. Only the handler's own synchronous work is counted, not
+ * tasks it schedules.
+ */
+public final class TimedEvents {
+    private TimedEvents() {
+    }
+
+    public static void register(Listener listener, Plugin plugin) {
+        for (Method method : listener.getClass().getMethods()) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.getParameterCount() != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+
+            EventExecutor delegate = EventExecutor.create(method, eventClass);
+            Metrics.Timer timer = Metrics.timer(
+                "fki_event_handler_seconds",
+                "Time spent in event handlers",
+                "handler",
+                listener.getClass().getSimpleName() + "." + method.getName()
+            );
+            EventExecutor timed = (l, event) -> {
+                long started = System.nanoTime();
+                try {
+                    delegate.execute(l, event);
+                } finally {
+                    timer.recordSince(started);
+                }
+            };
+
+            plugin.getServer().getPluginManager().registerEvent(
+                eventClass, listener, handler.priority(), timed, plugin, handler.ignoreCancelled()
+            );
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.fairkeepinventory.util;
+
+/**
+ * Allows {@code perSecond} actions per second on average, and bursts of up to
+ * {@code capacity}. Safe from any thread.
+ */
+public final class TokenBucket {
+    private final double perSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double perSecond, double capacity) {
+        this.perSecond = perSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take a token if there is one.
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * perSecond / 1_000_000_000.0);
+        lastRefillNanos = now;
+
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.fairkeepinventory.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs background jobs a little at a time: each call to runSlice(), once a
+ * tick, steps the jobs round-robin until the time budget is spent or none
+ * has anything left to do. A job keeps its own cursor, so whatever did not
+ * fit carries over to the next tick instead of becoming a spike.
+ *
+ * Only call runSlice() from one thread; jobs may be added from any.
+ */
+public final class WorkScheduler {
+    /**
+     * A resumable piece of background work.
+     */
+    public interface Job {
+        /**
+         * Do one small unit of work, a few microseconds at most. Returns
+         * false if there was nothing to do right now.
+         */
+        boolean step();
+    }
+
+    private static final Metrics.Timer SLICE = Metrics.timer(
+        "fki_work_slice_seconds", "Time spent in background work per tick", "scheduler", "global"
+    );
+    private static final Metrics.Counter EXHAUSTED = Metrics.counter(
+        "fki_work_slices_exhausted_total", "Ticks whose background work budget ran out with work left"
+    );
+
+    private final List<Job> jobs = new CopyOnWriteArrayList<>();
+    private final long budgetNanos;
+    // Job to start the next slice with, so a busy job can't starve the rest
+    private int next = 0;
+
+    public WorkScheduler(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public void add(Job job) {
+        jobs.add(job);
+    }
+
+    public void remove(Job job) {
+        jobs.remove(job);
+    }
+
+    public void runSlice() {
+        Job[] current = jobs.toArray(new Job[0]);
+        int count = current.length;
+        if (count == 0) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        long deadline = started + budgetNanos;
+        // Jobs in a row that had nothing to do; once every job is idle, stop
+        int idle = 0;
+        int i = next % count;
+        while (idle < count) {
+            if (System.nanoTime() - deadline >= 0) {
+                EXHAUSTED.increment();
+                break;
+            }
+            if (current[i].step()) {
+                idle = 0;
+            } else {
+                idle++;
+            }
+            i = (i + 1) % count;
+        }
+        next = i;
+        SLICE.recordSince(started);
+    }
+}
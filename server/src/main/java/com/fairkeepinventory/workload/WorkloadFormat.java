@@ -0,0 +1,42 @@
+package com.fairkeepinventory.workload;
+
+/**
+ * The recording file format shared by WorkloadRecorder and WorkloadReplayer.
+ *
+ * A file starts with MAGIC and VERSION, then holds records back to back.
+ * Every record is a kind byte, a varint of microseconds since the previous
+ * record, and the kind's fields, all varints. Players, inventories and item
+ * keys are written once per file with a DEFINE_* record and referred to by
+ * index afterwards, so each file stands on its own.
+ */
+final class WorkloadFormat {
+    static final int MAGIC = 0x464B4957; // "FKIW"
+    static final int VERSION = 1;
+
+    // index, uuid as two longs
+    static final int DEFINE_PLAYER = 0x01;
+    // index, serialized InventoryId as UTF
+    static final int DEFINE_INVENTORY = 0x02;
+    // index, length, ItemStack.serializeAsBytes() of the key
+    static final int DEFINE_KEY = 0x03;
+
+    // player, inventory, key, amount: from a slot onto the player's cursor
+    static final int TAKE = 0x10;
+    // player, inventory, key, amount: from the player's cursor into a slot
+    static final int PUT = 0x11;
+    // source, destination, key, amount
+    static final int MOVE = 0x12;
+    // inventory, key, amount: items that came from outside any inventory
+    static final int GAIN = 0x13;
+    // inventory, key, amount: items used up or dropped on the ground
+    static final int LOSE = 0x14;
+    // player
+    static final int DEATH = 0x15;
+    // seconds
+    static final int TICK = 0x16;
+    // player, key, amount: from the player's cursor onto the ground
+    static final int DROP = 0x17;
+
+    private WorkloadFormat() {
+    }
+}
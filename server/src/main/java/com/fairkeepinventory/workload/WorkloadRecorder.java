@@ -0,0 +1,319 @@
+package com.fairkeepinventory.workload;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import com.fairkeepinventory.model.InventoryId;
+import com.fairkeepinventory.model.ItemKeys;
+import com.fairkeepinventory.util.Blocking;
+import com.fairkeepinventory.util.Scheduling;
+import com.fairkeepinventory.util.VarInts;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Records the ownership-relevant events the listeners handle, in
+ * WorkloadFormat, so WorkloadReplayer can run the same traffic against
+ * another build.
+ *
+ * The record methods are safe from any thread and only queue the event;
+ * while recording is off they return at once. Once a second the queue is
+ * written out on a Blocking lane; a file that reaches maxFileBytes is closed
+ * and a new one started, and only the newest maxFiles are kept.
+ */
+public final class WorkloadRecorder {
+    private record Event(
+            int kind,
+            long nanos,
+            UUID player,
+            InventoryId first,
+            InventoryId second,
+            ItemStack key,
+            int amount
+    ) {
+    }
+
+    static final String FILE_SUFFIX = ".fkiw";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final WorkloadRecorder INSTANCE = new WorkloadRecorder();
+
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    private volatile boolean recording = false;
+    private ScheduledTask flushTask;
+    private Logger logger;
+    private Path directory;
+    private long maxFileBytes;
+    private int maxFiles;
+
+    // Only touched on this recorder's Blocking lane
+    private DataOutputStream out;
+    private long lastNanos;
+    private int fileSequence;
+    private final Map<UUID, Integer> players = new HashMap<>();
+    private final Map<InventoryId, Integer> inventories = new HashMap<>();
+    private final Map<ItemStack, Integer> keys = new HashMap<>();
+
+    private WorkloadRecorder() {
+    }
+
+    public static WorkloadRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Start recording into {@code directory}. Adds a TICK a second, standing
+     * for the timers PlayerTimerTick runs.
+     */
+    public synchronized void start(Path directory, long maxFileBytes, int maxFiles, Logger logger) {
+        if (recording) {
+            return;
+        }
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.logger = logger;
+        recording = true;
+        flushTask = Scheduling.runGlobalTimer(() -> {
+            enqueue(WorkloadFormat.TICK, null, null, null, null, 1);
+            Blocking.supplyInOrder(this, () -> {
+                drain();
+                return null;
+            });
+        }, 20L, 20L);
+    }
+
+    /**
+     * Stop recording and close the file once what is queued is written. Call
+     * before Blocking.shutdown() so that write gets to run.
+     */
+    public synchronized void stop() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        flushTask.cancel();
+        Blocking.supplyInOrder(this, () -> {
+            drain();
+            closeFile();
+            return null;
+        });
+    }
+
+    public void take(UUID player, Inventory inventory, ItemStack stack, int amount) {
+        if (recording && inventory != null) {
+            enqueue(WorkloadFormat.TAKE, player, InventoryId.from(inventory), null, stack, amount);
+        }
+    }
+
+    public void put(UUID player, Inventory inventory, ItemStack stack, int amount) {
+        if (recording && inventory != null) {
+            enqueue(WorkloadFormat.PUT, player, InventoryId.from(inventory), null, stack, amount);
+        }
+    }
+
+    public void move(Inventory source, Inventory destination, ItemStack stack, int amount) {
+        if (recording && source != null && destination != null) {
+            enqueue(WorkloadFormat.MOVE, null, InventoryId.from(source), InventoryId.from(destination), stack, amount);
+        }
+    }
+
+    public void gain(InventoryId inventoryId, ItemStack stack, int amount) {
+        if (recording) {
+            enqueue(WorkloadFormat.GAIN, null, inventoryId, null, stack, amount);
+        }
+    }
+
+    public void lose(Inventory inventory, ItemStack stack, int amount) {
+        if (recording && inventory != null) {
+            enqueue(WorkloadFormat.LOSE, null, InventoryId.from(inventory), null, stack, amount);
+        }
+    }
+
+    public void drop(UUID player, ItemStack stack, int amount) {
+        if (recording) {
+            enqueue(WorkloadFormat.DROP, player, null, null, stack, amount);
+        }
+    }
+
+    public void death(UUID player) {
+        if (recording) {
+            enqueue(WorkloadFormat.DEATH, player, null, null, null, 0);
+        }
+    }
+
+    private void enqueue(int kind, UUID player, InventoryId first, InventoryId second, ItemStack stack, int amount) {
+        if (stack != null && (stack.isEmpty() || amount <= 0)) {
+            return;
+        }
+        ItemStack key = stack != null ? ItemKeys.of(stack) : null;
+        queue.add(new Event(kind, System.nanoTime(), player, first, second, key, amount));
+    }
+
+    // ---------------------------------------------------
+    // Writing, on the Blocking lane
+    // ---------------------------------------------------
+
+    private void drain() {
+        Event event;
+        try {
+            while ((event = queue.poll()) != null) {
+                if (out == null || out.size() >= maxFileBytes) {
+                    openFile(event.nanos());
+                }
+                write(event);
+            }
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.warning("Workload recording failed, stopping: " + e.getMessage());
+            queue.clear();
+            closeFile();
+            Scheduling.runGlobal(this::stop);
+        }
+    }
+
+    private void write(Event event) throws IOException {
+        // Definitions go first, stamped with no time of their own
+        int player = event.player() != null ? playerIndex(event.player()) : -1;
+        int first = event.first() != null ? inventoryIndex(event.first()) : -1;
+        int second = event.second() != null ? inventoryIndex(event.second()) : -1;
+        int key = event.key() != null ? keyIndex(event.key()) : -1;
+
+        out.writeByte(event.kind());
+        VarInts.write(out, (int) Math.min(Integer.MAX_VALUE, Math.max(0L, event.nanos() - lastNanos) / 1_000L));
+        lastNanos = event.nanos();
+
+        switch (event.kind()) {
+            case WorkloadFormat.TAKE, WorkloadFormat.PUT -> {
+                VarInts.write(out, player);
+                VarInts.write(out, first);
+                VarInts.write(out, key);
+                VarInts.write(out, event.amount());
+            }
+            case WorkloadFormat.MOVE -> {
+                VarInts.write(out, first);
+                VarInts.write(out, second);
+                VarInts.write(out, key);
+                VarInts.write(out, event.amount());
+            }
+            case WorkloadFormat.GAIN, WorkloadFormat.LOSE -> {
+                VarInts.write(out, first);
+                VarInts.write(out, key);
+                VarInts.write(out, event.amount());
+            }
+            case WorkloadFormat.DROP -> {
+                VarInts.write(out, player);
+                VarInts.write(out, key);
+                VarInts.write(out, event.amount());
+            }
+            case WorkloadFormat.DEATH -> VarInts.write(out, player);
+            case WorkloadFormat.TICK -> VarInts.write(out, event.amount());
+            default -> throw new IllegalStateException("Unknown workload record kind " + event.kind());
+        }
+    }
+
+    private int playerIndex(UUID player) throws IOException {
+        Integer index = players.get(player);
+        if (index == null) {
+            index = players.size();
+            players.put(player, index);
+            out.writeByte(WorkloadFormat.DEFINE_PLAYER);
+            VarInts.write(out, 0);
+            VarInts.write(out, index);
+            out.writeLong(player.getMostSignificantBits());
+            out.writeLong(player.getLeastSignificantBits());
+        }
+        return index;
+    }
+
+    private int inventoryIndex(InventoryId inventoryId) throws IOException {
+        Integer index = inventories.get(inventoryId);
+        if (index == null) {
+            index = inventories.size();
+            inventories.put(inventoryId, index);
+            out.writeByte(WorkloadFormat.DEFINE_INVENTORY);
+            VarInts.write(out, 0);
+            VarInts.write(out, index);
+            out.writeUTF(inventoryId.serialize());
+        }
+        return index;
+    }
+
+    private int keyIndex(ItemStack key) throws IOException {
+        Integer index = keys.get(key);
+        if (index == null) {
+            index = keys.size();
+            keys.put(key, index);
+            byte[] bytes = key.serializeAsBytes();
+            out.writeByte(WorkloadFormat.DEFINE_KEY);
+            VarInts.write(out, 0);
+            VarInts.write(out, index);
+            VarInts.write(out, bytes.length);
+            out.write(bytes);
+        }
+        return index;
+    }
+
+    private void openFile(long nanos) throws IOException {
+        closeFile();
+        Files.createDirectories(directory);
+
+        String name = "workload-" + LocalDateTime.now().format(FILE_TIME) + "-" + (fileSequence++) + FILE_SUFFIX;
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(name))));
+        out.writeInt(WorkloadFormat.MAGIC);
+        out.writeByte(WorkloadFormat.VERSION);
+        lastNanos = nanos;
+
+        deleteOldFiles();
+    }
+
+    private void closeFile() {
+        players.clear();
+        inventories.clear();
+        keys.clear();
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close workload recording: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                .filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                .sorted((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()))
+                .toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+}
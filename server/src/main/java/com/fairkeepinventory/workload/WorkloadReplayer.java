@@ -0,0 +1,288 @@
+package com.fairkeepinventory.workload;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+
+import com.fairkeepinventory.model.InventoryId;
+import com.fairkeepinventory.model.OwnershipStatus;
+import com.fairkeepinventory.model.OwnershipTable;
+import com.fairkeepinventory.platform.InMemoryPlatform;
+import com.fairkeepinventory.util.StableOrderingMap;
+import com.fairkeepinventory.util.VarInts;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Runs a recording from WorkloadRecorder against a detached OwnershipTable
+ * on an InMemoryPlatform, as fast as it will go, and reports throughput,
+ * per-event latency and allocation.
+ *
+ * Each event goes through the same OwnershipTable entry points its listener
+ * calls (syncItemLost, syncItemGet, transferItems, removeRecords,
+ * tickPlayer), by inventory id since there are no live inventories. Every
+ * player in the recording counts as online for the whole run.
+ *
+ * This is not headless: the live table is never touched, but decoding item
+ * keys and player inventory ids needs the server's registries, so it has to
+ * run inside a server, ideally an idle test one. Call it from a platform
+ * thread: virtual threads don't report what they allocate.
+ */
+public final class WorkloadReplayer {
+    public record Report(
+            int events,
+            long elapsedNanos,
+            long p50Nanos,
+            long p90Nanos,
+            long p99Nanos,
+            long maxNanos,
+            // -1 if the JVM can't tell
+            long allocatedBytes
+    ) {
+        public double eventsPerSecond() {
+            return elapsedNanos > 0 ? events * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        public String describe() {
+            String allocation = allocatedBytes < 0 ? "allocation unknown" : String.format(
+                "allocated %.1f MB (%.1f MB/s)",
+                allocatedBytes / 1_048_576.0,
+                elapsedNanos > 0 ? allocatedBytes / 1_048_576.0 * 1_000_000_000.0 / elapsedNanos : 0.0
+            );
+            return String.format(
+                "%d events in %.1f ms (%.0f/s); latency p50 %.1f µs, p90 %.1f µs, p99 %.1f µs, max %.1f µs; %s",
+                events, elapsedNanos / 1_000_000.0, eventsPerSecond(),
+                p50Nanos / 1_000.0, p90Nanos / 1_000.0, p99Nanos / 1_000.0, maxNanos / 1_000.0,
+                allocation
+            );
+        }
+    }
+
+    private record Event(int kind, UUID player, InventoryId first, InventoryId second, ItemStack key, int amount) {
+    }
+
+    private record Recording(List<UUID> players, List<Event> events) {
+    }
+
+    private final InMemoryPlatform platform = new InMemoryPlatform();
+    private final OwnershipTable table = OwnershipTable.detached(platform);
+    private final List<UUID> players;
+
+    private WorkloadReplayer(List<UUID> players) {
+        this.players = players;
+        for (UUID player : players) {
+            platform.join(player);
+        }
+    }
+
+    public static Report replay(Path file) throws IOException {
+        // Decode up front so only the table's work is measured
+        Recording recording = read(file);
+        return new WorkloadReplayer(recording.players()).run(recording.events());
+    }
+
+    private Report run(List<Event> events) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] latencies = new long[events.size()];
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < latencies.length; i++) {
+            long eventStart = System.nanoTime();
+            apply(events.get(i));
+            // Publish snapshots, as the server would at the end of the tick
+            platform.runPending();
+            latencies[i] = System.nanoTime() - eventStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = threads.getCurrentThreadAllocatedBytes();
+
+        Arrays.sort(latencies);
+        return new Report(
+            latencies.length,
+            elapsed,
+            percentile(latencies, 0.50),
+            percentile(latencies, 0.90),
+            percentile(latencies, 0.99),
+            latencies.length > 0 ? latencies[latencies.length - 1] : 0L,
+            allocatedBefore < 0 || allocatedAfter < 0 ? -1L : allocatedAfter - allocatedBefore
+        );
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    // ---------------------------------------------------
+    // Applying events, the way the listeners would
+    // ---------------------------------------------------
+
+    private void apply(Event event) {
+        switch (event.kind()) {
+            case WorkloadFormat.TAKE -> {
+                // PICKUP_*
+                var status = table.syncItemLost(event.first(), event.key(), event.amount()).get(event.key());
+                if (status != null) {
+                    table.setCursor(event.player(), event.key(), status);
+                } else {
+                    table.takeCursor(event.player());
+                }
+            }
+            case WorkloadFormat.PUT -> {
+                // PLACE_* and drags: what's placed comes off the cursor
+                var cursor = table.getCursor(event.player());
+                if (cursor == null) {
+                    table.syncItemGet(event.first(), event.key(), event.amount());
+                    return;
+                }
+                StableOrderingMap<OwnershipStatus, Integer> placed = OwnershipTable.splitOwnership(
+                    cursor.getAmount(), event.amount(), OwnershipStatus.playerDropOrder(event.player())
+                );
+                if (cursor.getAmount().isEmpty()) {
+                    table.takeCursor(event.player());
+                }
+                table.syncItemGet(event.first(), cursor.getItemType(), placed);
+            }
+            case WorkloadFormat.MOVE -> table.transferItems(event.first(), event.second(), event.key(), event.amount());
+            case WorkloadFormat.GAIN -> table.syncItemGet(event.first(), event.key(), event.amount());
+            case WorkloadFormat.LOSE -> table.syncItemLost(event.first(), event.key(), event.amount());
+            case WorkloadFormat.DROP -> {
+                // DROP_*_CURSOR
+                var cursor = table.getCursor(event.player());
+                if (cursor == null) {
+                    return;
+                }
+                OwnershipTable.splitOwnership(
+                    cursor.getAmount(), event.amount(), OwnershipStatus.playerDropOrder(event.player())
+                );
+                if (cursor.getAmount().isEmpty()) {
+                    table.takeCursor(event.player());
+                }
+            }
+            // ItemDropOnDeath; there are no slots to empty, so only the records go
+            case WorkloadFormat.DEATH -> table.removeRecords(
+                InventoryId.player(event.player(), InventoryType.PLAYER),
+                status -> !status.isOwnedBy(event.player())
+            );
+            case WorkloadFormat.TICK -> {
+                // PlayerTimerTick
+                for (UUID player : players) {
+                    table.tickPlayer(
+                        player,
+                        event.amount() * OwnershipTable.INVENTORY_TICK_SECONDS,
+                        event.amount() * OwnershipTable.ENDER_CHEST_TICK_SECONDS,
+                        Runnable::run
+                    );
+                }
+            }
+            default -> throw new IllegalStateException("Unknown workload record kind " + event.kind());
+        }
+    }
+
+    // ---------------------------------------------------
+    // Reading
+    // ---------------------------------------------------
+
+    private static Recording read(Path file) throws IOException {
+        List<Event> events = new ArrayList<>();
+        List<UUID> players = new ArrayList<>();
+        List<InventoryId> inventories = new ArrayList<>();
+        List<ItemStack> keys = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != WorkloadFormat.MAGIC) {
+                throw new IOException(file.getFileName() + " is not a workload recording");
+            }
+            int version = in.readUnsignedByte();
+            if (version != WorkloadFormat.VERSION) {
+                throw new IOException("Unsupported workload recording version " + version);
+            }
+
+            while (true) {
+                int kind = in.readUnsignedByte();
+                // Timing is kept in the file for other tools; replay runs flat out
+                VarInts.read(in);
+
+                switch (kind) {
+                    case WorkloadFormat.DEFINE_PLAYER -> {
+                        expectIndex(in, players.size());
+                        players.add(new UUID(in.readLong(), in.readLong()));
+                    }
+                    case WorkloadFormat.DEFINE_INVENTORY -> {
+                        expectIndex(in, inventories.size());
+                        inventories.add(InventoryId.deserialize(in.readUTF()));
+                    }
+                    case WorkloadFormat.DEFINE_KEY -> {
+                        expectIndex(in, keys.size());
+                        byte[] bytes = new byte[VarInts.read(in)];
+                        in.readFully(bytes);
+                        keys.add(ItemStack.deserializeBytes(bytes));
+                    }
+                    case WorkloadFormat.TAKE, WorkloadFormat.PUT -> events.add(new Event(
+                        kind,
+                        players.get(VarInts.read(in)),
+                        inventories.get(VarInts.read(in)),
+                        null,
+                        keys.get(VarInts.read(in)),
+                        VarInts.read(in)
+                    ));
+                    case WorkloadFormat.MOVE -> events.add(new Event(
+                        kind,
+                        null,
+                        inventories.get(VarInts.read(in)),
+                        inventories.get(VarInts.read(in)),
+                        keys.get(VarInts.read(in)),
+                        VarInts.read(in)
+                    ));
+                    case WorkloadFormat.GAIN, WorkloadFormat.LOSE -> events.add(new Event(
+                        kind,
+                        null,
+                        inventories.get(VarInts.read(in)),
+                        null,
+                        keys.get(VarInts.read(in)),
+                        VarInts.read(in)
+                    ));
+                    case WorkloadFormat.DROP -> events.add(new Event(
+                        kind,
+                        players.get(VarInts.read(in)),
+                        null,
+                        null,
+                        keys.get(VarInts.read(in)),
+                        VarInts.read(in)
+                    ));
+                    case WorkloadFormat.DEATH -> events.add(new Event(
+                        kind, players.get(VarInts.read(in)), null, null, null, 0
+                    ));
+                    case WorkloadFormat.TICK -> events.add(new Event(
+                        kind, null, null, null, null, VarInts.read(in)
+                    ));
+                    default -> throw new IOException("Unknown workload record kind " + kind);
+                }
+            }
+        } catch (EOFException e) {
+            // End of the file, or of a recording cut off mid-record
+        }
+        return new Recording(players, events);
+    }
+
+    private static void expectIndex(DataInputStream in, int expected) throws IOException {
+        int index = VarInts.read(in);
+        if (index != expected) {
+            throw new IOException("Workload recording defines index " + index + ", expected " + expected);
+        }
+    }
+}